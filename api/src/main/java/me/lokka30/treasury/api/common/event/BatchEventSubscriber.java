@@ -0,0 +1,112 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an event subscriber which handles a whole batch of events at once. When events are
+ * fired via {@link EventBus#fireAll(java.util.Collection)}, a batch event subscriber gets called
+ * only once with every event of the batch it should receive, instead of once per event. Events
+ * fired one by one are handed to it as a batch of one.
+ *
+ * <p>Examples:
+ * <pre>
+ * EventBus eventBus = EventBus.INSTANCE;
+ * eventBus.subscribe(
+ *   eventBus.subscriptionFor(AnEvent.class)
+ *     .whenBatchCalled(events -> {
+ *       // store all events in one go
+ *       return Completion.completed();
+ *     })
+ *     .completeSubscription()
+ * );
+ * </pre>
+ *
+ * @param <T> event type
+ * @see EventBus#fireAll(java.util.Collection)
+ * @since v1.2.1
+ */
+public abstract class BatchEventSubscriber<T> extends EventSubscriber<T> {
+
+    /**
+     * Creates a new {@link BatchEventSubscriber} via a {@link Function}
+     *
+     * @param eventClass event class
+     * @param priority event priority
+     * @param ignoreCancelled whether to ignore cancelled event object(s)
+     * @param onEventsFunc on events handler function
+     * @return batch event subscriber
+     * @param <T> event type
+     */
+    public static <T> BatchEventSubscriber<T> functionalBatch(
+            Class<T> eventClass,
+            EventPriority priority,
+            boolean ignoreCancelled,
+            Function<List<T>, Completion> onEventsFunc
+    ) {
+        return new BatchEventSubscriber<T>(eventClass, priority, ignoreCancelled) {
+            @Override
+            public @NotNull Completion onEvents(@NotNull final List<T> events) {
+                return onEventsFunc.apply(events);
+            }
+        };
+    }
+
+    public BatchEventSubscriber(@NotNull Class<T> eventClass) {
+        super(eventClass);
+    }
+
+    public BatchEventSubscriber(@NotNull Class<T> eventClass, @NotNull EventPriority priority) {
+        super(eventClass, priority);
+    }
+
+    public BatchEventSubscriber(
+            @NotNull Class<T> eventClass, @NotNull EventPriority priority, boolean ignoreCancelled
+    ) {
+        super(eventClass, priority, ignoreCancelled);
+    }
+
+    public BatchEventSubscriber(
+            @NotNull Class<T> eventClass,
+            @NotNull EventPriority priority,
+            boolean ignoreCancelled,
+            boolean readOnly
+    ) {
+        super(eventClass, priority, ignoreCancelled, readOnly);
+    }
+
+    /**
+     * Treasury's {@link EventBus} calls this method with every event of a batch this
+     * subscription should receive. Already cancelled events are left out if this subscriber
+     * {@link #ignoreCancelled() ignores cancelled} events, as are events which a subscriber of
+     * a higher priority failed on. If the returned {@link Completion} completes exceptionally,
+     * every event of the batch is considered failed.
+     *
+     * @param events the events, never empty and not modifiable
+     * @return completion
+     * @see Completion
+     */
+    @NotNull
+    public abstract Completion onEvents(@NotNull List<T> events);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NotNull
+    public Completion onEvent(@NotNull T event) {
+        return onEvents(Collections.singletonList(event));
+    }
+
+    @Override
+    public String toString() {
+        return "Batch" + super.toString();
+    }
+
+}
@@ -9,7 +9,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -17,6 +21,10 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Represents a state of completion. This is used to block event execution until the
  * {@link EventSubscriber} finishes an async task.
+ * <p>
+ * Waiting for a {@code Completion} is done by registering a callback via
+ * {@link #whenComplete(Consumer)}, which gets ran by whoever completes it, so no thread has to
+ * sit idle while an async task runs.
  *
  * @author MrIvanPlays
  * @see EventSubscriber
@@ -60,8 +68,9 @@ public final class Completion {
 
     /**
      * Returns a {@code Completion} which is a summary from all the specified {@code Completions}
-     * {@code other}. <b>WARNING: This method blocks the thread it's being called onto. You may
-     * want to use this asynchronously.</b>
+     * {@code other}. The returned completion completes once all of the specified
+     * {@code Completions} complete, and holds all of their errors, in the order the
+     * {@code Completions} were specified. This method does not block.
      *
      * @param other completions to join
      * @return a joined completion
@@ -69,23 +78,89 @@ public final class Completion {
     @NotNull
     public static Completion join(@NotNull Completion @NotNull ... other) {
         Objects.requireNonNull(other, "other");
-        List<Throwable> errors = new ArrayList<>();
         for (Completion completion : other) {
             Objects.requireNonNull(completion, "completion");
-            if (!completion.isCompleted()) {
-                completion.waitCompletion();
-            }
-            if (!completion.getErrors().isEmpty()) {
-                errors.addAll(completion.getErrors());
+        }
+        if (other.length == 0) {
+            return Completion.completed();
+        }
+        if (other.length == 1) {
+            return other[0];
+        }
+        Completion ret = new Completion();
+        @SuppressWarnings("unchecked")
+        Collection<Throwable>[] results = new Collection[other.length];
+        AtomicInteger remaining = new AtomicInteger(other.length);
+        for (int i = 0; i < other.length; i++) {
+            final int index = i;
+            other[i].whenComplete(errors -> {
+                results[index] = errors;
+                if (remaining.decrementAndGet() != 0) {
+                    return;
+                }
+                List<Throwable> joined = new ArrayList<>();
+                for (Collection<Throwable> result : results) {
+                    joined.addAll(result);
+                }
+                if (joined.isEmpty()) {
+                    ret.complete();
+                } else {
+                    ret.completeExceptionally(joined);
+                }
+            });
+        }
+        return ret;
+    }
+
+    /**
+     * Returns a {@code Completion} which completes when the specified {@link CompletionStage}
+     * {@code stage} completes. If the stage completes exceptionally, the returned
+     * {@code Completion} is completed exceptionally with the cause of the failure.
+     *
+     * @param stage the stage to adapt
+     * @return completion
+     * @since v1.2.1
+     */
+    @NotNull
+    public static Completion fromCompletionStage(@NotNull CompletionStage<?> stage) {
+        Objects.requireNonNull(stage, "stage");
+        Completion ret = new Completion();
+        stage.whenComplete((result, error) -> {
+            if (error == null) {
+                ret.complete();
+            } else {
+                ret.completeExceptionally(unwrap(error));
             }
+        });
+        return ret;
+    }
+
+    @NotNull
+    static Throwable unwrap(@NotNull Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
         }
-        return errors.isEmpty()
-                ? Completion.completed()
-                : Completion.completedExceptionally(errors);
+        return error;
     }
 
-    private CountDownLatch latch = new CountDownLatch(1);
+    @NotNull
+    static Throwable merge(@NotNull Collection<@NotNull Throwable> errors) {
+        if (errors.size() == 1) {
+            return errors.iterator().next();
+        }
+        CompletionException merged = new CompletionException(
+                errors.size() + " errors occurred",
+                null
+        );
+        for (Throwable error : errors) {
+            merged.addSuppressed(error);
+        }
+        return merged;
+    }
+
+    private volatile boolean completed;
     private Collection<Throwable> errors;
+    private List<Consumer<Collection<Throwable>>> callbacks;
 
     /**
      * Creates a new {@code Completion} which is not completed.
@@ -95,14 +170,12 @@ public final class Completion {
     }
 
     private Completion(boolean completed) {
-        if (completed) {
-            this.latch.countDown();
-        }
+        this.completed = completed;
     }
 
     private Completion(@NotNull Collection<@NotNull Throwable> errors) {
         this.errors = Objects.requireNonNull(errors, "errors");
-        this.latch.countDown();
+        this.completed = true;
     }
 
     private Completion(@NotNull Throwable error) {
@@ -116,7 +189,7 @@ public final class Completion {
      * @since v1.1.2
      */
     public boolean isCompleted() {
-        return latch.getCount() == 0;
+        return completed;
     }
 
     /**
@@ -125,10 +198,7 @@ public final class Completion {
      * @throws IllegalStateException if this completion is already completed
      */
     public void complete() {
-        if (latch.getCount() == 0) {
-            throw new IllegalStateException("Completion already completed");
-        }
-        latch.countDown();
+        doComplete(null);
     }
 
     /**
@@ -139,12 +209,8 @@ public final class Completion {
      * @throws IllegalStateException if this completion is already completed
      */
     public void completeExceptionally(@NotNull Throwable error) {
-        if (latch.getCount() == 0) {
-            throw new IllegalStateException("Completion already completed");
-        }
         Objects.requireNonNull(error, "error");
-        this.errors = Collections.singletonList(error);
-        latch.countDown();
+        doComplete(Collections.singletonList(error));
     }
 
     /**
@@ -155,12 +221,38 @@ public final class Completion {
      * @throws IllegalStateException if this completion is already completed
      */
     public void completeExceptionally(@NotNull Collection<@NotNull Throwable> errors) {
-        if (latch.getCount() == 0) {
-            throw new IllegalStateException("Completion already completed");
-        }
         Objects.requireNonNull(errors, "errors");
-        this.errors = errors;
-        latch.countDown();
+        doComplete(errors);
+    }
+
+    private void doComplete(@Nullable Collection<Throwable> errors) {
+        List<Consumer<Collection<Throwable>>> toRun;
+        synchronized (this) {
+            if (completed) {
+                throw new IllegalStateException("Completion already completed");
+            }
+            this.errors = errors;
+            this.completed = true;
+            toRun = this.callbacks;
+            this.callbacks = null;
+        }
+        if (toRun != null) {
+            Collection<Throwable> result = getErrors();
+            for (Consumer<Collection<Throwable>> callback : toRun) {
+                runCallback(callback, result);
+            }
+        }
+    }
+
+    private static void runCallback(
+            @NotNull Consumer<Collection<Throwable>> callback,
+            @NotNull Collection<Throwable> errors
+    ) {
+        try {
+            callback.accept(errors);
+        } catch (Throwable error) {
+            error.printStackTrace();
+        }
     }
 
     /**
@@ -169,8 +261,13 @@ public final class Completion {
      * to use this method, it is highly recommended that you do it asynchronously.</b>
      */
     public void waitCompletion() {
+        if (completed) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        whenComplete(errors -> latch.countDown());
         try {
-            latch.await();
+            EventExecutorTracker.await(latch);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -185,30 +282,60 @@ public final class Completion {
      */
     @NotNull
     public Collection<@NotNull Throwable> getErrors() {
+        if (!completed) {
+            return Collections.emptyList();
+        }
+        Collection<Throwable> errors = this.errors;
         return errors == null ? Collections.emptyList() : errors;
     }
 
     /**
      * Runs the specified {@link Consumer} {@code task} when this {@code Completion} completes.
-     * <b>WARNING: This has the potential to block the thread it's called onto. In 99% of the use
-     * cases you wouldn't need to use this. If you really need to use this method, it is highly
-     * recommended that you do it asynchronously.</b>
+     * If this {@code Completion} is already completed, the task is ran immediately on the
+     * calling thread, otherwise it is ran on the thread which completes this
+     * {@code Completion}. This method does not block.
      *
      * @param completedTask task to run
      */
     public void whenComplete(@Nullable Consumer<@NotNull Collection<@NotNull Throwable>> completedTask) {
-        if (completedTask != null) {
-            if (latch.getCount() == 0) {
-                completedTask.accept(getErrors());
-            } else {
-                try {
-                    latch.await();
-                    completedTask.accept(getErrors());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+        if (completedTask == null) {
+            return;
+        }
+        if (!completed) {
+            synchronized (this) {
+                if (!completed) {
+                    if (callbacks == null) {
+                        callbacks = new ArrayList<>(2);
+                    }
+                    callbacks.add(completedTask);
+                    return;
                 }
             }
         }
+        completedTask.accept(getErrors());
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} which completes when this {@code Completion}
+     * completes. If this {@code Completion} completes with a single error, the future is
+     * completed exceptionally with it. If it completes with more errors, the future is
+     * completed exceptionally with a {@link CompletionException} which holds all of them as
+     * {@link Throwable#getSuppressed() suppressed} exceptions.
+     *
+     * @return future
+     * @since v1.2.1
+     */
+    @NotNull
+    public CompletableFuture<Void> toCompletableFuture() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        whenComplete(errors -> {
+            if (errors.isEmpty()) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(merge(errors));
+            }
+        });
+        return future;
     }
 
 }
@@ -0,0 +1,532 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable, flattened view of every {@link EventSubscriber} which has to be called when an
+ * event of one concrete class is fired. Subscribers of the event class and of all of its
+ * supertypes are merged into one array ordered by {@link EventPriority}; subscribers of the same
+ * priority keep the order of the event class hierarchy and then the order they were registered
+ * in. {@link EventSubscriber#readOnly() Read-only} subscribers come last within their priority,
+ * and runs of them are called concurrently.
+ * <p>
+ * Plans are never mutated. The {@link EventBus} swaps a plan for a freshly built one whenever
+ * a subscription which affects it changes, so firing an event only needs to look up the plan
+ * and walk its array.
+ * <p>
+ * A subscriber which {@link SubscriberTimeoutException times out} does not stop the chain,
+ * while any other error does. A fire's deadline is checked before every subscriber; once it is
+ * past, the remaining subscribers are not called.
+ * <p>
+ * {@link EventSubscriber#key() Keyed} subscribers are indexed by the key extractor most of
+ * them share: the plan keeps a sub-plan per key holding the subscribers an event with that key
+ * reaches, so firing extracts the key once and looks its sub-plan up instead of offering the
+ * event to every keyed subscriber. Subscribers keyed through other extractors are matched one
+ * by one while walking the chain.
+ */
+final class DispatchPlan {
+
+    static final DispatchPlan EMPTY = new DispatchPlan(new EventSubscriber[0]);
+
+    private static final int PENDING = 0;
+    private static final int INLINE = 1;
+    private static final int RESUMED = 2;
+
+    private final EventSubscriber[] subscribers;
+    // for the first subscriber of a run of read-only subscribers of one priority, the index
+    // after that run; 0 everywhere else
+    private final int[] concurrentUntil;
+    // what events of this plan are put in order by, see EventBus#orderBy
+    @Nullable
+    private final Function<Object, ?> routingKey;
+    // the extractor whose keys an event has already been routed by, if this is a sub-plan
+    @Nullable
+    private final Function<Object, ?> routedBy;
+    // the extractor sub-plans are indexed by, the sub-plan per key and the sub-plan of events
+    // whose key no subscriber filters for; all null if nothing is keyed
+    @Nullable
+    private final Function<Object, ?> indexedBy;
+    @Nullable
+    private final Map<Object, DispatchPlan> byKey;
+    @Nullable
+    private final DispatchPlan unmatched;
+
+    DispatchPlan(@NotNull EventSubscriber[] subscribers) {
+        this(subscribers, null, null);
+    }
+
+    DispatchPlan(
+            @NotNull EventSubscriber[] subscribers, @Nullable Function<Object, ?> routingKey
+    ) {
+        this(subscribers, routingKey, null);
+    }
+
+    private DispatchPlan(
+            @NotNull EventSubscriber[] subscribers,
+            @Nullable Function<Object, ?> routingKey,
+            @Nullable Function<Object, ?> routedBy
+    ) {
+        this.subscribers = subscribers;
+        this.routingKey = routingKey;
+        this.routedBy = routedBy;
+        Function<Object, ?> indexedBy = routedBy == null ? mostSharedExtractor(subscribers) : null;
+        if (indexedBy == null) {
+            this.indexedBy = null;
+            this.byKey = null;
+            this.unmatched = null;
+        } else {
+            Set<Object> keys = new LinkedHashSet<>();
+            List<EventSubscriber> unkeyed = new ArrayList<>();
+            for (EventSubscriber subscriber : subscribers) {
+                if (isKeyed(subscriber) && subscriber.keyExtractor() == indexedBy) {
+                    keys.add(subscriber.key());
+                } else {
+                    unkeyed.add(subscriber);
+                }
+            }
+            Map<Object, DispatchPlan> byKey = new HashMap<>(keys.size() * 2);
+            for (Object key : keys) {
+                List<EventSubscriber> reached = new ArrayList<>();
+                for (EventSubscriber subscriber : subscribers) {
+                    if (subscriber.keyExtractor() != indexedBy || !isKeyed(subscriber)
+                            || key.equals(subscriber.key())) {
+                        reached.add(subscriber);
+                    }
+                }
+                byKey.put(key, new DispatchPlan(reached.toArray(new EventSubscriber[0]),
+                        null,
+                        indexedBy
+                ));
+            }
+            this.indexedBy = indexedBy;
+            this.byKey = byKey;
+            this.unmatched = new DispatchPlan(unkeyed.toArray(new EventSubscriber[0]),
+                    null,
+                    indexedBy
+            );
+        }
+        this.concurrentUntil = new int[subscribers.length];
+        int i = 0;
+        while (i < subscribers.length) {
+            int end = i + 1;
+            if (subscribers[i].readOnly()) {
+                while (end < subscribers.length
+                        && subscribers[end].readOnly()
+                        && subscribers[end].priority() == subscribers[i].priority()) {
+                    end++;
+                }
+                if (end - i > 1) {
+                    concurrentUntil[i] = end;
+                }
+            }
+            i = end;
+        }
+    }
+
+    boolean isEmpty() {
+        return subscribers.length == 0;
+    }
+
+    int size() {
+        return subscribers.length;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Function<Object, ?> mostSharedExtractor(@NotNull EventSubscriber[] subscribers) {
+        Map<Function<?, ?>, Integer> counts = new IdentityHashMap<>();
+        Function<?, ?> best = null;
+        int bestCount = 0;
+        for (EventSubscriber subscriber : subscribers) {
+            if (!isKeyed(subscriber)) {
+                continue;
+            }
+            int count = counts.merge(subscriber.keyExtractor(), 1, Integer::sum);
+            if (count > bestCount) {
+                best = subscriber.keyExtractor();
+                bestCount = count;
+            }
+        }
+        return (Function<Object, ?>) best;
+    }
+
+    private static boolean isKeyed(@NotNull EventSubscriber subscriber) {
+        return subscriber.keyExtractor() != null && subscriber.key() != null;
+    }
+
+    // an extractor which fails matches no key, the same as one returning null
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Object keyOf(@NotNull Function<?, ?> extractor, @NotNull Object event) {
+        try {
+            return ((Function<Object, ?>) extractor).apply(event);
+        } catch (RuntimeException error) {
+            return null;
+        }
+    }
+
+    // the key the specified event is put in order by, or null to fire it unordered
+    @Nullable
+    Object routingKeyOf(@NotNull Object event) {
+        return routingKey == null ? null : keyOf(routingKey, event);
+    }
+
+    @NotNull
+    private DispatchPlan route(@NotNull Object event) {
+        Object key = keyOf(indexedBy, event);
+        DispatchPlan plan = key == null ? null : byKey.get(key);
+        return plan != null ? plan : unmatched;
+    }
+
+    @NotNull
+    Completion call(@NotNull Object event) {
+        return call(event, EventWatchdog.NO_DEADLINE, null);
+    }
+
+    /**
+     * Calls the subscribers of this plan for the specified event.
+     *
+     * @param event event
+     * @param deadline {@link System#nanoTime()} by which the whole chain has to be done, or
+     *     {@link EventWatchdog#NO_DEADLINE}
+     * @param tracer the tracer to record the subscriber calls into, or null if this fire is
+     *     not traced
+     * @return completion
+     */
+    @NotNull
+    Completion call(@NotNull Object event, long deadline, @Nullable EventTracer tracer) {
+        if (subscribers.length == 0) {
+            return Completion.completed();
+        }
+        if (indexedBy != null) {
+            return route(event).call(event, deadline, tracer);
+        }
+        Completion completion = new Completion();
+        call(event, deadline, tracer, new ArrayList<>(), 0, completion);
+        return completion;
+    }
+
+    private void call(
+            Object event,
+            long deadline,
+            EventTracer tracer,
+            List<Throwable> errorsToThrow,
+            int startIndex,
+            Completion completion
+    ) {
+        for (int i = startIndex; i < subscribers.length; i++) {
+            if (EventWatchdog.isPast(deadline)) {
+                errorsToThrow.add(new TimeoutException("Firing " + event.getClass().getName()
+                        + " took longer than its timeout, " + (subscribers.length - i)
+                        + " subscriber(s) were not called"));
+                completion.completeExceptionally(errorsToThrow);
+                return;
+            }
+            EventSubscriber subscriber = subscribers[i];
+            Completion subscriberCompletion;
+            final int nextStart;
+            if (concurrentUntil[i] != 0) {
+                nextStart = concurrentUntil[i];
+                subscriberCompletion = invokeConcurrently(event, deadline, tracer, i, nextStart);
+                i = nextStart - 1;
+            } else if (skips(subscriber, event)) {
+                continue;
+            } else {
+                nextStart = i + 1;
+                subscriberCompletion = invoke(subscriber, event, deadline, tracer);
+            }
+            if (!continueInline(subscriberCompletion, () -> {
+                if (!failed(subscriberCompletion, errorsToThrow, completion)) {
+                    call(event, deadline, tracer, errorsToThrow, nextStart, completion);
+                }
+            })) {
+                return;
+            }
+            if (failed(subscriberCompletion, errorsToThrow, completion)) {
+                return;
+            }
+        }
+        if (errorsToThrow.isEmpty()) {
+            completion.complete();
+        } else {
+            completion.completeExceptionally(errorsToThrow);
+        }
+    }
+
+    // Calls the read-only subscribers in [start, end) at the same time: all but the first are
+    // handed to the event executor, the first one runs right here.
+    @NotNull
+    private Completion invokeConcurrently(
+            @NotNull Object event, long deadline, @Nullable EventTracer tracer, int start, int end
+    ) {
+        Executor executor = EventExecutorTracker.INSTANCE.getExecutor(event.getClass());
+        List<Completion> completions = new ArrayList<>(end - start);
+        EventSubscriber first = null;
+        for (int i = start; i < end; i++) {
+            EventSubscriber subscriber = subscribers[i];
+            if (skips(subscriber, event)) {
+                continue;
+            }
+            if (first == null) {
+                first = subscriber;
+                continue;
+            }
+            Completion completion = new Completion();
+            executor.execute(() -> invoke(subscriber, event, deadline, tracer)
+                    .whenComplete(errors -> {
+                        if (errors.isEmpty()) {
+                            completion.complete();
+                        } else {
+                            completion.completeExceptionally(errors);
+                        }
+                    }));
+            completions.add(completion);
+        }
+        if (first == null) {
+            return Completion.completed();
+        }
+        completions.add(0, invoke(first, event, deadline, tracer));
+        return Completion.join(completions.toArray(new Completion[0]));
+    }
+
+    private static boolean failed(
+            Completion subscriberCompletion, List<Throwable> errorsToThrow, Completion completion
+    ) {
+        Collection<Throwable> errors = subscriberCompletion.getErrors();
+        if (errors.isEmpty()) {
+            return false;
+        }
+        errorsToThrow.addAll(errors);
+        for (Throwable error : errors) {
+            if (!(error instanceof SubscriberTimeoutException)) {
+                completion.completeExceptionally(errorsToThrow);
+                return true;
+            }
+        }
+        // only timeouts: the late subscribers are reported, the chain carries on
+        return false;
+    }
+
+    /**
+     * Calls a batch of events of this plan's event class. Every subscriber gets every event
+     * before the next subscriber is called; a {@link BatchEventSubscriber} gets them all in one
+     * call. An event which fails on a subscriber is not passed to the following ones, and its
+     * errors are stored at its index in {@code errors}, which must be as big as {@code events}
+     * and filled with {@code null}; a timeout counts as a failure for the events it happened
+     * on. The returned completion never completes exceptionally.
+     */
+    @NotNull
+    Completion callAll(@NotNull List<?> events, @NotNull List<List<Throwable>> errors) {
+        if (subscribers.length == 0 || events.isEmpty()) {
+            return Completion.completed();
+        }
+        Completion completion = new Completion();
+        callAll(events, errors, EventTracer.INSTANCE.sample(), 0, completion);
+        return completion;
+    }
+
+    private void callAll(
+            List<?> events,
+            List<List<Throwable>> errors,
+            EventTracer tracer,
+            int startIndex,
+            Completion completion
+    ) {
+        for (int i = startIndex; i < subscribers.length; i++) {
+            EventSubscriber subscriber = subscribers[i];
+            int[] positions = new int[events.size()];
+            List<Object> batch = new ArrayList<>(events.size());
+            for (int j = 0; j < events.size(); j++) {
+                Object event = events.get(j);
+                if (errors.get(j) != null || skips(subscriber, event)) {
+                    continue;
+                }
+                positions[batch.size()] = j;
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            Completion step;
+            if (subscriber instanceof BatchEventSubscriber) {
+                BatchEventSubscriber batchSubscriber = (BatchEventSubscriber) subscriber;
+                EventMetrics.SubscriberMetricsEntry metrics = EventMetrics.INSTANCE.forSubscriber(
+                        subscriber);
+                long start = System.nanoTime();
+                try {
+                    step = Objects.requireNonNull(
+                            batchSubscriber.onEvents(Collections.unmodifiableList(batch)),
+                            "completion"
+                    );
+                } catch (Throwable error) {
+                    step = Completion.completedExceptionally(error);
+                }
+                step = observe(subscriber,
+                        batch.get(0).getClass(),
+                        metrics,
+                        start,
+                        step,
+                        EventWatchdog.NO_DEADLINE,
+                        tracer
+                );
+                step.whenComplete(batchErrors -> {
+                    if (!batchErrors.isEmpty()) {
+                        for (int k = 0; k < batch.size(); k++) {
+                            errors.set(positions[k], new ArrayList<>(batchErrors));
+                        }
+                    }
+                });
+            } else {
+                // the events are independent of each other, so they all go to the subscriber
+                // before waiting on any of them
+                Completion allCalled = new Completion();
+                AtomicInteger remaining = new AtomicInteger(batch.size());
+                for (int k = 0; k < batch.size(); k++) {
+                    final int position = positions[k];
+                    invoke(subscriber,
+                            batch.get(k),
+                            EventWatchdog.NO_DEADLINE,
+                            tracer
+                    ).whenComplete(eventErrors -> {
+                        if (!eventErrors.isEmpty()) {
+                            errors.set(position, new ArrayList<>(eventErrors));
+                        }
+                        if (remaining.decrementAndGet() == 0) {
+                            allCalled.complete();
+                        }
+                    });
+                }
+                step = allCalled;
+            }
+
+            final int nextStart = i + 1;
+            Runnable resume = () -> callAll(events, errors, tracer, nextStart, completion);
+            if (!continueInline(step, resume)) {
+                return;
+            }
+        }
+        completion.complete();
+    }
+
+    /**
+     * Trampoline for the subscriber chain: returns true if {@code step} completed by the time
+     * this returns, so the caller keeps going in its own loop instead of growing the stack by
+     * a callback per subscriber. Otherwise {@code resume} runs once, on the thread which
+     * completes {@code step}, after the caller's loop has already returned.
+     */
+    private static boolean continueInline(@NotNull Completion step, @NotNull Runnable resume) {
+        if (step.isCompleted()) {
+            return true;
+        }
+        AtomicInteger state = new AtomicInteger(PENDING);
+        step.whenComplete(errors -> {
+            if (!state.compareAndSet(PENDING, INLINE)) {
+                resume.run();
+            }
+        });
+        // if the callback won, it completed while being registered: loop on
+        return !state.compareAndSet(PENDING, RESUMED);
+    }
+
+    private boolean skips(@NotNull EventSubscriber subscriber, @NotNull Object event) {
+        if (subscriber.ignoreCancelled()
+                && event instanceof Cancellable
+                && ((Cancellable) event).isCancelled()) {
+            return true;
+        }
+        Function<?, ?> extractor = subscriber.keyExtractor();
+        return extractor != null && extractor != routedBy && isKeyed(subscriber)
+                && !subscriber.key().equals(keyOf(extractor, event));
+    }
+
+    @NotNull
+    private static Completion invoke(
+            @NotNull EventSubscriber subscriber,
+            @NotNull Object event,
+            long deadline,
+            @Nullable EventTracer tracer
+    ) {
+        EventMetrics.SubscriberMetricsEntry metrics = EventMetrics.INSTANCE.forSubscriber(
+                subscriber);
+        long start = System.nanoTime();
+        Completion completion;
+        try {
+            completion = Objects.requireNonNull(subscriber.onEvent(event), "completion");
+        } catch (Throwable error) {
+            completion = Completion.completedExceptionally(error);
+        }
+        return observe(subscriber, event.getClass(), metrics, start, completion, deadline, tracer);
+    }
+
+    // the bookkeeping of a subscriber call: watchdog, tracing and stats
+    @NotNull
+    private static Completion observe(
+            @NotNull EventSubscriber subscriber,
+            @NotNull Class<?> eventClass,
+            @Nullable EventMetrics.SubscriberMetricsEntry metrics,
+            long start,
+            @NotNull Completion completion,
+            long deadline,
+            @Nullable EventTracer tracer
+    ) {
+        if (completion.isCompleted()) {
+            // one clock read serves both the watchdog and the trace
+            long end = System.nanoTime();
+            EventWatchdog.INSTANCE.checkLatency(subscriber, end - start);
+            if (tracer != null) {
+                tracer.record(EventTrace.Stage.SUBSCRIBER,
+                        eventClass,
+                        subscriber,
+                        start,
+                        end,
+                        Thread.currentThread(),
+                        completion.getErrors()
+                );
+            }
+            return record(metrics, start, completion);
+        }
+        completion = EventWatchdog.INSTANCE.watch(subscriber, completion, start, deadline);
+        if (tracer != null) {
+            tracer.traceSubscriber(subscriber, eventClass, start, completion);
+        }
+        return record(metrics, start, completion);
+    }
+
+    @NotNull
+    private static Completion record(
+            @Nullable EventMetrics.SubscriberMetricsEntry metrics,
+            long start,
+            @NotNull Completion completion
+    ) {
+        if (metrics != null) {
+            completion.whenComplete(errors -> metrics.called(start, !errors.isEmpty()));
+        }
+        return completion;
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchPlan{subscribers=" + subscribers.length + '}';
+    }
+
+}
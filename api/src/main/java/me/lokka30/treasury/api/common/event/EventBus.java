@@ -5,15 +5,27 @@
 package me.lokka30.treasury.api.common.event;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents an event bus. An event bus manages event subscriptions and event calls.
@@ -24,8 +36,12 @@ import org.jetbrains.annotations.NotNull;
 public enum EventBus {
     INSTANCE;
 
-    private Map<Class<?>, EventCaller> events = new ConcurrentHashMap<>();
-    private EventTypeTracker eventTypes = new EventTypeTracker();
+    private final Map<Class<?>, EventCaller> events = new ConcurrentHashMap<>();
+    private final Map<Class<?>, DispatchPlan> plans = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Function<?, ?>> routingKeys = new ConcurrentHashMap<>();
+    private final EventTypeTracker eventTypes = new EventTypeTracker();
+    private final Set<Subscription> subscriptions = new LinkedHashSet<>();
+    private final Object subscriptionLock = new Object();
 
     /**
      * Subscribes this {@link EventSubscriber} for calling whenever the event the specified
@@ -33,15 +49,107 @@ public enum EventBus {
      *
      * @param subscription the subscription to subscribe
      * @param <T> event type
+     * @return a {@link Subscription} handle which can be used to unsubscribe
      * @see EventSubscriber
      */
-    public <T> void subscribe(@NotNull EventSubscriber<T> subscription) {
-        Objects.requireNonNull(subscription, "subscription");
-        events
-                .computeIfAbsent(subscription.eventClass(),
-                        k -> new EventCaller(subscription.eventClass())
-                )
-                .register(subscription);
+    @NotNull
+    public <T> Subscription subscribe(@NotNull EventSubscriber<T> subscription) {
+        return doSubscribe(null, subscription);
+    }
+
+    /**
+     * Subscribes this {@link EventSubscriber} for calling whenever the event the specified
+     * {@code subscription} is listening for gets fired, on behalf of the specified
+     * {@code owner}. All subscriptions of an owner can be removed at once with
+     * {@link #unsubscribeAll(String)}.
+     *
+     * @param owner who subscribes, e.g. the name of a plugin
+     * @param subscription the subscription to subscribe
+     * @param <T> event type
+     * @return a {@link Subscription} handle which can be used to unsubscribe
+     * @see EventSubscriber
+     * @since v1.2.1
+     */
+    @NotNull
+    public <T> Subscription subscribe(
+            @NotNull String owner, @NotNull EventSubscriber<T> subscription
+    ) {
+        Objects.requireNonNull(owner, "owner");
+        return doSubscribe(owner, subscription);
+    }
+
+    @NotNull
+    private Subscription doSubscribe(@Nullable String owner, @NotNull EventSubscriber<?> subscriber) {
+        Objects.requireNonNull(subscriber, "subscription");
+        Subscription subscription = new Subscription(subscriber, owner);
+        synchronized (subscriptionLock) {
+            events
+                    .computeIfAbsent(subscriber.eventClass(),
+                            k -> new EventCaller(subscriber.eventClass())
+                    )
+                    .register(subscriber);
+            subscriptions.add(subscription);
+            rebuildPlans(subscriber.eventClass());
+        }
+        return subscription;
+    }
+
+    /**
+     * Unsubscribes every {@link Subscription} which was subscribed with the specified
+     * {@code owner}. Owners are compared ignoring case.
+     *
+     * @param owner the owner
+     * @return amount of subscriptions removed
+     * @since v1.2.1
+     */
+    public int unsubscribeAll(@NotNull String owner) {
+        Objects.requireNonNull(owner, "owner");
+        synchronized (subscriptionLock) {
+            Set<Class<?>> changed = new HashSet<>();
+            int removed = 0;
+            Iterator<Subscription> iterator = subscriptions.iterator();
+            while (iterator.hasNext()) {
+                Subscription subscription = iterator.next();
+                if (!owner.equalsIgnoreCase(subscription.owner())) {
+                    continue;
+                }
+                iterator.remove();
+                removeSubscriber(subscription);
+                changed.add(subscription.subscriber().eventClass());
+                removed++;
+            }
+            for (Class<?> eventClass : changed) {
+                rebuildPlans(eventClass);
+            }
+            return removed;
+        }
+    }
+
+    boolean unsubscribe(@NotNull Subscription subscription) {
+        synchronized (subscriptionLock) {
+            if (!subscriptions.remove(subscription)) {
+                return false;
+            }
+            removeSubscriber(subscription);
+            rebuildPlans(subscription.subscriber().eventClass());
+            return true;
+        }
+    }
+
+    // must be called with the subscription lock held
+    private void removeSubscriber(@NotNull Subscription subscription) {
+        subscription.deactivate();
+        Class<?> eventClass = subscription.subscriber().eventClass();
+        EventCaller caller = events.get(eventClass);
+        if (caller == null) {
+            return;
+        }
+        caller.unregister(subscription.subscriber());
+        EventMetrics.INSTANCE.remove(subscription.subscriber());
+        EventWatchdog.INSTANCE.forget(subscription.subscriber());
+        if (caller.isEmpty()) {
+            events.remove(eventClass);
+        }
     }
 
     /**
@@ -66,35 +174,528 @@ public enum EventBus {
      */
     @NotNull
     public <T> FireCompletion<T> fire(@NotNull T event) {
+        return dispatch(event, null, EventWatchdog.INSTANCE.defaultDeadline());
+    }
+
+    /**
+     * Calls/Fires the {@link EventSubscriber EventSubscribers} of the specified {@code event},
+     * giving up on the subscribers which haven't been called once the specified timeout has
+     * passed since firing. The returned {@link FireCompletion} then completes with a
+     * {@link java.util.concurrent.TimeoutException}, so a stuck subscriber can't keep the
+     * caller waiting forever. A subscriber already running past the timeout is stopped
+     * waiting for just like when it exceeds its own
+     * {@link EventSubscriber#timeoutMillis() timeout}.
+     * <p>
+     * {@link #fire(Object)} uses the timeout of the {@code treasury.event.fireTimeoutMillis}
+     * system property, if set.
+     *
+     * @param event the event to fire
+     * @param timeout how long firing may take, 0 or less for no limit
+     * @param unit the unit of {@code timeout}
+     * @param <T> event type
+     * @return {@link FireCompletion}
+     * @see #fire(Object)
+     * @since v1.2.1
+     */
+    @NotNull
+    public <T> FireCompletion<T> fire(@NotNull T event, long timeout, @NotNull TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit");
+        return dispatch(event, null, EventWatchdog.INSTANCE.deadline(timeout, unit));
+    }
+
+    /**
+     * Calls/Fires the {@link EventSubscriber EventSubscribers} of the specified {@code event} on
+     * the calling thread. As long as every subscriber completes right away, like a
+     * {@link SimpleEventSubscriber} does, the returned {@link FireCompletion} is already
+     * completed when this method returns. If a subscriber returns a {@link Completion} which is
+     * not yet completed, the remaining subscribers are called on the thread which completes it.
+     * The same goes for {@link EventSubscriber#readOnly() read-only} subscribers sharing a
+     * priority, which are called concurrently on the event threads.
+     * <p>
+     * Meant for latency critical callers which would otherwise fire and then immediately block
+     * until the event is done. Subscribers run on the calling thread, so if that is e.g. the
+     * main server thread, they should not do slow work there.
+     *
+     * @param event the event to fire
+     * @param <T> event type
+     * @return {@link FireCompletion}
+     * @see #fire(Object)
+     * @since v1.2.1
+     */
+    @NotNull
+    public <T> FireCompletion<T> fireSync(@NotNull T event) {
+        return fireOn(event, Runnable::run);
+    }
+
+    /**
+     * Calls/Fires the {@link EventSubscriber EventSubscribers} of the specified {@code event} on
+     * the specified {@link Executor}. If a subscriber returns a {@link Completion} which is not
+     * yet completed, the remaining subscribers are called on the thread which completes it.
+     * If the executor rejects the event, the returned {@link FireCompletion} completes
+     * exceptionally with the {@link RejectedExecutionException}.
+     *
+     * @param event the event to fire
+     * @param executor the executor to start calling the subscribers on
+     * @param <T> event type
+     * @return {@link FireCompletion}
+     * @see #fire(Object)
+     * @since v1.2.1
+     */
+    @NotNull
+    public <T> FireCompletion<T> fireOn(@NotNull T event, @NotNull Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return dispatch(event, executor, EventWatchdog.INSTANCE.defaultDeadline());
+    }
+
+    // a null executor means the event's own one, or its lane if the event class is ordered
+    @NotNull
+    private <T> FireCompletion<T> dispatch(
+            @NotNull T event, @Nullable Executor executor, long deadline
+    ) {
         Objects.requireNonNull(event, "event");
-        List<Class<?>> friends = eventTypes.getFriendsOf(event.getClass());
-        ExecutorService async = EventExecutorTracker.INSTANCE.getExecutor(event.getClass());
+        DispatchPlan plan = planFor(event.getClass());
+        if (plan.isEmpty()) {
+            // nobody listens: no executor, no task, just hand the event back
+            return new FireCompletion<>(event.getClass(), event);
+        }
         FireCompletion<T> ret = new FireCompletion<>(event.getClass());
-        async.submit(() -> {
-            List<Completion> completions = new ArrayList<>();
-            EventCaller caller = events.get(event.getClass());
-            if (caller != null) {
-                completions.add(caller.call(event));
-            }
-            for (Class<?> friend : friends) {
-                EventCaller friendCaller = events.get(friend);
-                if (friendCaller != null) {
-                    completions.add(friendCaller.call(event));
+        EventMetrics.EventMetricsEntry metrics = EventMetrics.INSTANCE.forEvent(event.getClass());
+        long start = metrics == null ? 0 : metrics.fireStarted(1);
+        EventTracer tracer = EventTracer.INSTANCE.sample();
+        long fired = tracer == null ? 0 : System.nanoTime();
+        Thread firingThread = tracer == null ? null : Thread.currentThread();
+        Consumer<Collection<Throwable>> finish = errors -> {
+            if (metrics != null) {
+                metrics.fireCompleted(start, 1, errors.isEmpty() ? 0 : 1);
+            }
+            if (tracer != null) {
+                tracer.record(EventTrace.Stage.FIRE,
+                        event.getClass(),
+                        null,
+                        fired,
+                        System.nanoTime(),
+                        firingThread,
+                        errors
+                );
+            }
+            if (!errors.isEmpty()) {
+                ret.completeExceptionally(errors);
+            } else {
+                ret.complete(event);
+            }
+        };
+        Supplier<Completion> call = () -> {
+            if (tracer != null) {
+                tracer.record(EventTrace.Stage.QUEUED,
+                        event.getClass(),
+                        null,
+                        fired,
+                        System.nanoTime(),
+                        Thread.currentThread(),
+                        Collections.emptyList()
+                );
+            }
+            Completion completion = plan.call(event, deadline, tracer);
+            completion.whenComplete(finish);
+            return completion;
+        };
+        if (executor != null) {
+            try {
+                executor.execute(call::get);
+            } catch (RejectedExecutionException e) {
+                // fails the fire like one the event's own queue drops, rather than leave it
+                // counted as in flight for good
+                finish.accept(Collections.singletonList(e));
+            }
+            return ret;
+        }
+
+        // the event's own queue, which is bounded
+        EventExecutorTracker.EventExecutor own = EventExecutorTracker.INSTANCE.getEventExecutor(
+                event.getClass());
+        Object routingKey = plan.routingKeyOf(event);
+        FireTask task = new FireTask(call,
+                finish,
+                routingKey == null && !(event instanceof Cancellable)
+        );
+        if (!own.admit(task, routingKey != null)) {
+            return ret;
+        }
+        if (routingKey != null) {
+            EventLanes.INSTANCE.submit(routingKey, own, task::start);
+        } else {
+            own.execute(task);
+        }
+        return ret;
+    }
+
+    /**
+     * Limits how many events of the specified class fired via {@link #fire(Object)} may wait
+     * for an event thread at once, counting a {@link #fireAll(Collection)} batch as one, and
+     * what happens to events fired while that many are waiting. This keeps memory bounded when
+     * events are fired faster than their subscribers keep up, e.g. while replaying a backlog of
+     * transactions.
+     * <p>
+     * Defaults to the {@code treasury.event.queueCapacity} and
+     * {@code treasury.event.overflowPolicy} system properties, 65536 and
+     * {@link OverflowPolicy#CALLER_RUNS} unless set. The limit only applies to the exact
+     * class, not to its subclasses.
+     *
+     * @param eventClass the event class to limit
+     * @param capacity how many fires may wait, 0 or less for no limit
+     * @param policy what to do with fires over the limit
+     * @see #getQueuedFires(Class)
+     * @since v1.2.1
+     */
+    public void limitQueue(
+            @NotNull Class<?> eventClass, int capacity, @NotNull OverflowPolicy policy
+    ) {
+        Objects.requireNonNull(eventClass, "eventClass");
+        Objects.requireNonNull(policy, "policy");
+        EventExecutorTracker.INSTANCE.getEventExecutor(eventClass).limit(capacity, policy);
+    }
+
+    /**
+     * Returns how many events of the specified class have been fired via
+     * {@link #fire(Object)} and are waiting for an event thread. Unlike
+     * {@link #getStats()}, this is always tracked.
+     *
+     * @param eventClass event class
+     * @return fires waiting to be started
+     * @since v1.2.1
+     */
+    public int getQueuedFires(@NotNull Class<?> eventClass) {
+        Objects.requireNonNull(eventClass, "eventClass");
+        return EventExecutorTracker.INSTANCE.getPendingFires(eventClass);
+    }
+
+    /**
+     * Puts the events of the specified class, and of its subclasses, in order by the key the
+     * specified function extracts from them. Events with equal keys fired via
+     * {@link #fire(Object)} are delivered one after another in the order they were fired: an
+     * event only reaches its first subscriber once every subscriber of the one before it has
+     * completed. Events with different keys are still called in parallel.
+     * <p>
+     * For example, to deliver the transactions of each account in order:
+     * <pre>
+     * EventBus.INSTANCE.orderBy(
+     *   AccountTransactionEvent.class,
+     *   AccountTransactionEvent.BY_ACCOUNT
+     * );
+     * </pre>
+     * Events whose key is null, as well as ones fired via {@link #fireSync(Object)} or
+     * {@link #fireOn(Object, Executor)}, are not put in order. Subclasses can be given a
+     * routing key of their own, which then wins over the one of their supertype.
+     *
+     * @param eventClass the event class to put in order
+     * @param routingKey the function to extract the key with, or null to stop ordering
+     * @param <T> event type
+     * @since v1.2.1
+     */
+    public <T> void orderBy(
+            @NotNull Class<T> eventClass, @Nullable Function<? super T, ?> routingKey
+    ) {
+        Objects.requireNonNull(eventClass, "eventClass");
+        synchronized (subscriptionLock) {
+            if (routingKey == null) {
+                routingKeys.remove(eventClass);
+            } else {
+                routingKeys.put(eventClass, routingKey);
+            }
+            rebuildPlans(eventClass);
+        }
+    }
+
+    /**
+     * Calls/Fires the {@link EventSubscriber EventSubscribers} of every event in the specified
+     * {@link Collection} as one batch. Each subscriber is called with the whole batch before the
+     * next one in priority order, a {@link BatchEventSubscriber} with one call for all the
+     * events it should receive. Events of the same class share a single executor submission,
+     * which takes one place in the queue {@link #limitQueue(Class, int, OverflowPolicy) limited}
+     * for their class; if that queue is full, the batch is handled by its
+     * {@link OverflowPolicy} like a single fire, and a rejected or dropped batch fails every
+     * event in it.
+     * <p>
+     * The returned {@link FireCompletion} completes once every event was called, with one
+     * {@link FireResult} per event in the iteration order of {@code events}. An event which a
+     * subscriber failed on is not passed to the following subscribers, while the rest of the
+     * batch carries on.
+     *
+     * @param events the events to fire
+     * @param <T> event type
+     * @return {@link FireCompletion} of the per-event results
+     * @see #fire(Object)
+     * @since v1.2.1
+     */
+    @NotNull
+    public <T> FireCompletion<List<FireResult<T>>> fireAll(@NotNull Collection<T> events) {
+        Objects.requireNonNull(events, "events");
+        List<T> ordered = new ArrayList<>(events);
+        if (ordered.isEmpty()) {
+            FireCompletion<List<FireResult<T>>> ret = new FireCompletion<>(Object.class);
+            ret.complete(Collections.emptyList());
+            return ret;
+        }
+
+        Map<Class<?>, List<Integer>> positionsByClass = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            T event = Objects.requireNonNull(ordered.get(i), "event");
+            positionsByClass.computeIfAbsent(event.getClass(), k -> new ArrayList<>()).add(i);
+        }
+
+        FireCompletion<List<FireResult<T>>> ret = new FireCompletion<>(ordered.get(0).getClass());
+        List<List<Throwable>> errors = new ArrayList<>(Collections.nCopies(ordered.size(), null));
+        AtomicInteger remaining = new AtomicInteger(positionsByClass.size());
+        for (Map.Entry<Class<?>, List<Integer>> entry : positionsByClass.entrySet()) {
+            DispatchPlan plan = planFor(entry.getKey());
+            if (plan.isEmpty()) {
+                if (remaining.decrementAndGet() == 0) {
+                    ret.complete(results(ordered, errors));
                 }
+                continue;
             }
-            if (!completions.isEmpty()) {
-                Completion.join(completions.toArray(new Completion[0])).whenComplete(errors -> {
-                    if (!errors.isEmpty()) {
-                        ret.completeExceptionally(errors);
-                    } else {
-                        ret.complete(event);
+            List<Integer> positions = entry.getValue();
+            List<T> batch = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                batch.add(ordered.get(position));
+            }
+            List<List<Throwable>> batchErrors = new ArrayList<>(Collections.nCopies(
+                    batch.size(),
+                    null
+            ));
+            EventMetrics.EventMetricsEntry metrics = EventMetrics.INSTANCE.forEvent(entry.getKey());
+            long start = metrics == null ? 0 : metrics.fireStarted(batch.size());
+            // errors only if the batch was rejected or dropped before any subscriber was called
+            Consumer<Collection<Throwable>> finish = rejected -> {
+                int failed = 0;
+                for (int i = 0; i < positions.size(); i++) {
+                    List<Throwable> eventErrors = rejected.isEmpty()
+                            ? batchErrors.get(i)
+                            : new ArrayList<>(rejected);
+                    if (eventErrors != null) {
+                        failed++;
                     }
-                });
+                    errors.set(positions.get(i), eventErrors);
+                }
+                if (metrics != null) {
+                    metrics.fireCompleted(start, batch.size(), failed);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    ret.complete(results(ordered, errors));
+                }
+            };
+            Supplier<Completion> call = () -> {
+                Completion completion = plan.callAll(batch, batchErrors);
+                completion.whenComplete(finish);
+                return completion;
+            };
+
+            // the batch takes one slot of the bounded queue, like a single fire
+            EventExecutorTracker.EventExecutor own = EventExecutorTracker.INSTANCE.getEventExecutor(
+                    entry.getKey());
+            FireTask task = new FireTask(call,
+                    finish,
+                    !Cancellable.class.isAssignableFrom(entry.getKey())
+            );
+            if (own.admit(task, false)) {
+                own.execute(task);
+            }
+        }
+        return ret;
+    }
+
+    @NotNull
+    private static <T> List<FireResult<T>> results(
+            @NotNull List<T> events, @NotNull List<List<Throwable>> errors
+    ) {
+        List<FireResult<T>> results = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            results.add(new FireResult<>(events.get(i), errors.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Returns whether an event of the specified class would currently reach any
+     * {@link EventSubscriber}, that is whether anything is subscribed to the class or one of
+     * its supertypes. Costs a map lookup, so callers can check it before building an event
+     * nobody listens to.
+     * <p>
+     * Events fired while nothing is subscribed complete right away, without touching the
+     * event executor.
+     *
+     * @param eventClass event class
+     * @return true if subscribed to
+     * @since v1.2.1
+     */
+    public boolean hasSubscribers(@NotNull Class<?> eventClass) {
+        Objects.requireNonNull(eventClass, "eventClass");
+        return !planFor(eventClass).isEmpty();
+    }
+
+    /**
+     * Returns a snapshot of the {@link EventBusStats stats} recorded so far.
+     *
+     * @return stats
+     * @see #setStatsEnabled(boolean)
+     * @since v1.2.1
+     */
+    @NotNull
+    public EventBusStats getStats() {
+        return EventMetrics.INSTANCE.snapshot();
+    }
+
+    /**
+     * Returns whether {@link EventBusStats stats} are being recorded.
+     *
+     * @return enabled or not
+     * @since v1.2.1
+     */
+    public boolean isStatsEnabled() {
+        return EventMetrics.INSTANCE.isEnabled();
+    }
+
+    /**
+     * Sets whether {@link EventBusStats stats} should be recorded. Stats are off by default,
+     * unless the {@code treasury.event.stats} system property is set to {@code true}. While
+     * off, recording costs next to nothing.
+     *
+     * @param enabled whether to record stats
+     * @since v1.2.1
+     */
+    public void setStatsEnabled(boolean enabled) {
+        EventMetrics.INSTANCE.setEnabled(enabled);
+    }
+
+    /**
+     * Throws away all {@link EventBusStats stats} recorded so far.
+     *
+     * @since v1.2.1
+     */
+    public void resetStats() {
+        EventMetrics.INSTANCE.reset();
+    }
+
+    /**
+     * Returns the most recent dispatch stages traced while tracing was enabled.
+     *
+     * @return trace
+     * @see #setTracingEnabled(boolean)
+     * @since v1.2.1
+     */
+    @NotNull
+    public EventTrace getTrace() {
+        return EventTracer.INSTANCE.snapshot();
+    }
+
+    /**
+     * Returns whether dispatch stages are being traced.
+     *
+     * @return enabled or not
+     * @since v1.2.1
+     */
+    public boolean isTracingEnabled() {
+        return EventTracer.INSTANCE.isEnabled();
+    }
+
+    /**
+     * Sets whether dispatch stages should be traced into the {@link EventTrace}: how long each
+     * fire waited for an event thread, how long each subscriber took and on which thread, and
+     * which error it ended with. Only the most recent entries are kept, in a fixed size buffer,
+     * so tracing can be left on while looking into a slow event. Tracing is off by default,
+     * unless the {@code treasury.event.trace} system property is set to {@code true}.
+     * <p>
+     * To keep the overhead low, only one in 16 fires is traced, with all of its stages. The
+     * {@code treasury.event.traceSampleRate} system property sets another rate, 1 traces every
+     * fire.
+     *
+     * @param enabled whether to trace
+     * @since v1.2.1
+     */
+    public void setTracingEnabled(boolean enabled) {
+        EventTracer.INSTANCE.setEnabled(enabled);
+    }
+
+    /**
+     * Throws away the {@link EventTrace} entries traced so far.
+     *
+     * @since v1.2.1
+     */
+    public void clearTrace() {
+        EventTracer.INSTANCE.clear();
+    }
+
+    @NotNull
+    DispatchPlan planFor(@NotNull Class<?> eventClass) {
+        DispatchPlan plan = plans.get(eventClass);
+        if (plan != null) {
+            return plan;
+        }
+        // built under the subscription lock, so a plan can never be computed from a state
+        // which a concurrent subscribe has already replaced
+        synchronized (subscriptionLock) {
+            return plans.computeIfAbsent(eventClass, this::buildPlan);
+        }
+    }
+
+    // must be called with the subscription lock held
+    private void rebuildPlans(@NotNull Class<?> changedClass) {
+        for (Class<?> planned : plans.keySet()) {
+            if (!changedClass.isAssignableFrom(planned)) {
+                continue;
+            }
+            DispatchPlan plan = buildPlan(planned);
+            if (plan.isEmpty()) {
+                // nobody listens anymore, let the plan go until it's needed again
+                plans.remove(planned);
             } else {
-                ret.complete(event);
+                plans.put(planned, plan);
+            }
+        }
+    }
+
+    // must be called with the subscription lock held
+    @NotNull
+    private DispatchPlan buildPlan(@NotNull Class<?> eventClass) {
+        List<EventSubscriber> subscribers = new ArrayList<>();
+        EventCaller caller = events.get(eventClass);
+        if (caller != null) {
+            Collections.addAll(subscribers, caller.getSubscriptions());
+        }
+        for (Class<?> friend : eventTypes.getFriendsOf(eventClass)) {
+            EventCaller friendCaller = events.get(friend);
+            if (friendCaller != null) {
+                Collections.addAll(subscribers, friendCaller.getSubscriptions());
             }
+        }
+        if (subscribers.isEmpty()) {
+            return DispatchPlan.EMPTY;
+        }
+        // stable sort: same priority keeps hierarchy order, then registration order, with
+        // read-only subscribers moved behind the others of their priority
+        subscribers.sort((a, b) -> {
+            int byPriority = a.priority().compareTo(b.priority());
+            return byPriority != 0 ? byPriority : Boolean.compare(a.readOnly(), b.readOnly());
         });
-        return ret;
+        return new DispatchPlan(subscribers.toArray(new EventSubscriber[0]),
+                routingKeyFor(eventClass)
+        );
+    }
+
+    // the routing key of the class itself, or else of its nearest supertype which has one
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Function<Object, ?> routingKeyFor(@NotNull Class<?> eventClass) {
+        Function<?, ?> routingKey = routingKeys.get(eventClass);
+        if (routingKey == null) {
+            for (Class<?> friend : eventTypes.getFriendsOf(eventClass)) {
+                routingKey = routingKeys.get(friend);
+                if (routingKey != null) {
+                    break;
+                }
+            }
+        }
+        return (Function<Object, ?>) routingKey;
     }
 
     /**
@@ -109,8 +710,13 @@ public enum EventBus {
         private final Class<T> eventClass;
         private EventPriority priority;
         private boolean ignoreCancelled = false;
+        private boolean readOnly = false;
+        private long timeoutMillis = 0;
+        private Function<? super T, ?> keyExtractor;
+        private Object key;
         private Consumer<T> eventConsumer;
         private Function<T, Completion> completions;
+        private Function<List<T>, Completion> batchCompletions;
 
         private EventSubscriberBuilder(@NotNull Class<T> eventClass) {
             this.eventClass = Objects.requireNonNull(eventClass, "eventClass");
@@ -141,6 +747,60 @@ public enum EventBus {
             return this;
         }
 
+        /**
+         * Specifies whether the currently building {@link EventSubscriber} only reads the
+         * events it gets. Read-only subscribers of the same priority are called concurrently.
+         *
+         * @param readOnly read-only or not
+         * @return this instance for chaining
+         * @see EventSubscriber#readOnly()
+         * @since v1.2.1
+         */
+        @Contract("_ -> this")
+        public EventSubscriberBuilder<T> readOnly(boolean readOnly) {
+            this.readOnly = readOnly;
+            return this;
+        }
+
+        /**
+         * Specifies how long the currently building {@link EventSubscriber} may take to
+         * complete. A negative timeout means it never times out.
+         *
+         * @param timeout timeout
+         * @param unit the unit of {@code timeout}
+         * @return this instance for chaining
+         * @see EventSubscriber#timeoutMillis()
+         * @since v1.2.1
+         */
+        @Contract("_, _ -> this")
+        public EventSubscriberBuilder<T> withTimeout(long timeout, @NotNull TimeUnit unit) {
+            Objects.requireNonNull(unit, "unit");
+            this.timeoutMillis = timeout < 0 ? -1 : Math.max(1, unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * Makes the currently building {@link EventSubscriber} only get events whose key, as
+         * extracted by the specified {@code keyExtractor}, equals the specified {@code key}.
+         * Reuse one extractor instance, e.g.
+         * {@link me.lokka30.treasury.api.economy.events.AccountTransactionEvent#BY_CURRENCY},
+         * for all subscribers filtering on the same thing, so the event bus can index them.
+         *
+         * @param keyExtractor the function to get an event's key with
+         * @param key the key to get events for
+         * @return this instance for chaining
+         * @see EventSubscriber#keyExtractor()
+         * @since v1.2.1
+         */
+        @Contract("_, _ -> this")
+        public EventSubscriberBuilder<T> filteredBy(
+                @NotNull Function<? super T, ?> keyExtractor, @NotNull Object key
+        ) {
+            this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor");
+            this.key = Objects.requireNonNull(key, "key");
+            return this;
+        }
+
         /**
          * Specifies the action to do whenever the event the currently building
          * {@link EventSubscriber} subscribes for gets fired.
@@ -168,6 +828,27 @@ public enum EventBus {
             return this;
         }
 
+        /**
+         * Specifies the action to do whenever events the currently building
+         * {@link EventSubscriber} subscribes for get fired. Events fired together via
+         * {@link EventBus#fireAll(Collection)} are handed over in one call.
+         *
+         * @param withBatchCompletion the action to do
+         * @return this instance for chaining
+         * @see BatchEventSubscriber
+         * @since v1.2.1
+         */
+        @Contract("_ -> this")
+        public EventSubscriberBuilder<T> whenBatchCalled(
+                @NotNull Function<List<T>, Completion> withBatchCompletion
+        ) {
+            this.batchCompletions = Objects.requireNonNull(
+                    withBatchCompletion,
+                    "withBatchCompletion"
+            );
+            return this;
+        }
+
         /**
          * Builds the specified parameters in this builder into a {@link EventSubscriber}
          *
@@ -178,21 +859,77 @@ public enum EventBus {
             if (priority == null) {
                 priority = EventPriority.NORMAL;
             }
+            final long timeoutMillis = this.timeoutMillis;
+            final Function<? super T, ?> keyExtractor = this.keyExtractor;
+            final Object key = this.key;
             if (eventConsumer != null) {
-                return new SimpleEventSubscriber<T>(eventClass, priority, ignoreCancelled) {
+                return new SimpleEventSubscriber<T>(eventClass, priority, ignoreCancelled, readOnly) {
                     @Override
                     public void subscribe(@NotNull final T event) {
                         eventConsumer.accept(event);
                     }
+
+                    @Override
+                    public long timeoutMillis() {
+                        return timeoutMillis;
+                    }
+
+                    @Override
+                    public Function<? super T, ?> keyExtractor() {
+                        return keyExtractor;
+                    }
+
+                    @Override
+                    public Object key() {
+                        return key;
+                    }
+                };
+            } else if (batchCompletions != null) {
+                return new BatchEventSubscriber<T>(eventClass, priority, ignoreCancelled, readOnly) {
+                    @Override
+                    @NotNull
+                    public Completion onEvents(@NotNull final List<T> events) {
+                        return batchCompletions.apply(events);
+                    }
+
+                    @Override
+                    public long timeoutMillis() {
+                        return timeoutMillis;
+                    }
+
+                    @Override
+                    public Function<? super T, ?> keyExtractor() {
+                        return keyExtractor;
+                    }
+
+                    @Override
+                    public Object key() {
+                        return key;
+                    }
                 };
             } else {
                 Objects.requireNonNull(completions, "completions");
-                return new EventSubscriber<T>(eventClass, priority, ignoreCancelled) {
+                return new EventSubscriber<T>(eventClass, priority, ignoreCancelled, readOnly) {
                     @Override
                     @NotNull
                     public Completion onEvent(@NotNull final T event) {
                         return completions.apply(event);
                     }
+
+                    @Override
+                    public long timeoutMillis() {
+                        return timeoutMillis;
+                    }
+
+                    @Override
+                    public Function<? super T, ?> keyExtractor() {
+                        return keyExtractor;
+                    }
+
+                    @Override
+                    public Object key() {
+                        return key;
+                    }
                 };
             }
         }
@@ -0,0 +1,345 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a snapshot of what the {@link EventBus} has been doing since stats were last
+ * reset: how often each event class has been fired, how many of those fires failed or are
+ * still running, and how long every {@link EventSubscriber} takes.
+ * <p>
+ * Stats are only recorded while enabled via {@link EventBus#setStatsEnabled(boolean)} or the
+ * {@code treasury.event.stats} system property. A snapshot never changes after it was taken.
+ *
+ * @see EventBus#getStats()
+ * @since v1.2.1
+ */
+public final class EventBusStats {
+
+    private final boolean enabled;
+    private final long since;
+    private final List<EventStats> events;
+    private final List<SubscriberStats> subscribers;
+
+    EventBusStats(
+            boolean enabled,
+            long since,
+            @NotNull List<EventStats> events,
+            @NotNull List<SubscriberStats> subscribers
+    ) {
+        this.enabled = enabled;
+        this.since = since;
+        this.events = Collections.unmodifiableList(events);
+        this.subscribers = Collections.unmodifiableList(subscribers);
+    }
+
+    /**
+     * Returns whether stats were being recorded when this snapshot was taken.
+     *
+     * @return enabled or not
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the time stats were last reset at, in milliseconds since the epoch.
+     *
+     * @return reset time
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * Returns the stats of every event class which has been fired.
+     *
+     * @return event stats
+     */
+    @NotNull
+    public List<EventStats> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the stats of every {@link EventSubscriber} which has been called.
+     *
+     * @return subscriber stats
+     */
+    @NotNull
+    public List<SubscriberStats> getSubscribers() {
+        return subscribers;
+    }
+
+    /**
+     * Represents the stats of one fired event class.
+     *
+     * @since v1.2.1
+     */
+    public static final class EventStats {
+
+        private final Class<?> eventClass;
+        private final long fires;
+        private final long errors;
+        private final long inFlight;
+        private final int queued;
+        private final int capacity;
+        private final long overflows;
+        private final Latency latency;
+
+        EventStats(
+                @NotNull Class<?> eventClass,
+                long fires,
+                long errors,
+                long inFlight,
+                int queued,
+                int capacity,
+                long overflows,
+                @NotNull Latency latency
+        ) {
+            this.eventClass = eventClass;
+            this.fires = fires;
+            this.errors = errors;
+            this.inFlight = inFlight;
+            this.queued = queued;
+            this.capacity = capacity;
+            this.overflows = overflows;
+            this.latency = latency;
+        }
+
+        /**
+         * Returns the fired event class.
+         *
+         * @return event class
+         */
+        @NotNull
+        public Class<?> getEventClass() {
+            return eventClass;
+        }
+
+        /**
+         * Returns how many events of this class have been fired.
+         *
+         * @return fires
+         */
+        public long getFires() {
+            return fires;
+        }
+
+        /**
+         * Returns how many fires completed with errors.
+         *
+         * @return failed fires
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Returns how many fires have not completed yet.
+         *
+         * @return fires in flight
+         */
+        public long getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * Returns how many fires are waiting for an event thread.
+         *
+         * @return queued fires
+         * @see EventBus#getQueuedFires(Class)
+         */
+        public int getQueued() {
+            return queued;
+        }
+
+        /**
+         * Returns how many fires may wait for an event thread, 0 or less if unlimited.
+         *
+         * @return queue capacity
+         * @see EventBus#limitQueue(Class, int, OverflowPolicy)
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Returns how many fires found the queue full. Unlike the other numbers, this is
+         * counted even while stats are disabled, and not reset.
+         *
+         * @return overflowed fires
+         */
+        public long getOverflows() {
+            return overflows;
+        }
+
+        /**
+         * Returns how long fires took, from firing until every subscriber completed.
+         *
+         * @return fire latency
+         */
+        @NotNull
+        public Latency getLatency() {
+            return latency;
+        }
+
+    }
+
+    /**
+     * Represents the stats of one {@link EventSubscriber}.
+     *
+     * @since v1.2.1
+     */
+    public static final class SubscriberStats {
+
+        private final EventSubscriber<?> subscriber;
+        private final long calls;
+        private final long errors;
+        private final Latency latency;
+
+        SubscriberStats(
+                @NotNull EventSubscriber<?> subscriber,
+                long calls,
+                long errors,
+                @NotNull Latency latency
+        ) {
+            this.subscriber = subscriber;
+            this.calls = calls;
+            this.errors = errors;
+            this.latency = latency;
+        }
+
+        /**
+         * Returns the subscriber these stats are for.
+         *
+         * @return subscriber
+         */
+        @NotNull
+        public EventSubscriber<?> getSubscriber() {
+            return subscriber;
+        }
+
+        /**
+         * Returns how many times the subscriber has been called.
+         *
+         * @return calls
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Returns how many calls completed with errors.
+         *
+         * @return failed calls
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Returns how long calls took, until the returned {@link Completion} completed.
+         *
+         * @return call latency
+         */
+        @NotNull
+        public Latency getLatency() {
+            return latency;
+        }
+
+    }
+
+    /**
+     * Represents a latency histogram. Latencies are counted in power of two buckets, so
+     * percentiles are approximate: they are reported as the upper bound of their bucket, which
+     * is at most twice the real value.
+     *
+     * @since v1.2.1
+     */
+    public static final class Latency {
+
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        Latency(long count, long totalNanos, long maxNanos, @NotNull long[] buckets) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        /**
+         * Returns how many latencies were recorded.
+         *
+         * @return count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean latency in the specified {@link TimeUnit}.
+         *
+         * @param unit time unit
+         * @return mean latency, or 0 if nothing was recorded
+         */
+        public double getMean(@NotNull TimeUnit unit) {
+            if (count == 0) {
+                return 0;
+            }
+            return (double) totalNanos / count / unit.toNanos(1);
+        }
+
+        /**
+         * Returns the highest latency in the specified {@link TimeUnit}.
+         *
+         * @param unit time unit
+         * @return max latency
+         */
+        public long getMax(@NotNull TimeUnit unit) {
+            return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the latency, in the specified {@link TimeUnit}, which the specified
+         * {@code percentile} of recorded latencies are below of.
+         *
+         * @param percentile percentile, between 0 and 100
+         * @param unit time unit
+         * @return approximate latency at the percentile, or 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile, @NotNull TimeUnit unit) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return unit.convert(Math.min(upperBound, maxNanos), TimeUnit.NANOSECONDS);
+                }
+            }
+            return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+        }
+
+    }
+
+}
@@ -4,61 +4,90 @@
 
 package me.lokka30.treasury.api.common.event;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
-import me.lokka30.treasury.api.common.misc.SortedList;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Holds the {@link EventSubscriber EventSubscribers} which subscribed directly to one event
+ * class. Calling is done through the {@link DispatchPlan DispatchPlans} the {@link EventBus}
+ * builds out of these.
+ * <p>
+ * Subscribers are kept in a priority sorted, copy-on-write array: registering swaps in a new
+ * array, so readers always get a stable snapshot with O(1) indexing without having to lock.
+ */
 class EventCaller {
 
-    private List<EventSubscriber> subscriptions = new SortedList<>();
+    private static final EventSubscriber[] NO_SUBSCRIPTIONS = new EventSubscriber[0];
+
+    private volatile EventSubscriber[] subscriptions = NO_SUBSCRIPTIONS;
     private final Class<?> eventClass;
 
     EventCaller(Class<?> eventClass) {
         this.eventClass = eventClass;
     }
 
-    public void register(@NotNull EventSubscriber subscriber) {
-        subscriptions.add(Objects.requireNonNull(subscriber, "subscriber"));
+    public synchronized void register(@NotNull EventSubscriber subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        EventSubscriber[] current = subscriptions;
+        int index = insertionIndex(current, subscriber);
+        EventSubscriber[] updated = new EventSubscriber[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        updated[index] = subscriber;
+        System.arraycopy(current, index, updated, index + 1, current.length - index);
+        subscriptions = updated;
     }
 
-    public Completion call(Object event) {
-        if (subscriptions.isEmpty()) {
-            return Completion.completed();
+    public synchronized boolean unregister(@NotNull EventSubscriber subscriber) {
+        EventSubscriber[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != subscriber) {
+                continue;
+            }
+            if (current.length == 1) {
+                subscriptions = NO_SUBSCRIPTIONS;
+                return true;
+            }
+            EventSubscriber[] updated = new EventSubscriber[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, i);
+            System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+            subscriptions = updated;
+            return true;
         }
-        Completion completion = new Completion();
-        EventExecutorTracker.INSTANCE.getExecutor(eventClass).submit(() -> {
-            List<Throwable> errors = call(event, new ArrayList<>(), 0);
-            if (!errors.isEmpty()) {
-                completion.completeExceptionally(errors);
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return subscriptions.length == 0;
+    }
+
+    // after every subscriber of the same priority, so registration order is kept
+    private static int insertionIndex(EventSubscriber[] subscribers, EventSubscriber subscriber) {
+        int low = 0;
+        int high = subscribers.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (subscribers[mid].priority().compareTo(subscriber.priority()) <= 0) {
+                low = mid + 1;
             } else {
-                completion.complete();
+                high = mid;
             }
-        });
-        return completion;
+        }
+        return low;
     }
 
-    private List<Throwable> call(Object event, List<Throwable> errorsToThrow, int startIndex) {
-        for (int i = startIndex; i < subscriptions.size(); i++) {
-            EventSubscriber subscriber = subscriptions.get(i);
-            if (event instanceof Cancellable) {
-                if (((Cancellable) event).isCancelled() && subscriber.ignoreCancelled()) {
-                    continue;
-                }
-            }
-            final int nextStart = i + 1;
-            subscriber.onEvent(event).whenComplete(errors -> {
-                if (!errors.isEmpty()) {
-                    errorsToThrow.addAll(errors);
-                    return;
-                }
+    /**
+     * Returns the current snapshot of subscriptions. The returned array must not be modified.
+     *
+     * @return subscriptions, sorted by priority
+     */
+    @NotNull
+    public EventSubscriber[] getSubscriptions() {
+        return subscriptions;
+    }
 
-                call(event, errorsToThrow, nextStart);
-            });
-            break;
-        }
-        return errorsToThrow;
+    @Override
+    public String toString() {
+        return "EventCaller{eventClass=" + eventClass + ", subscriptions=" + subscriptions.length + '}';
     }
 
 }
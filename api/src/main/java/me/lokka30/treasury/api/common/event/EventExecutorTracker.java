@@ -4,45 +4,426 @@
 
 package me.lokka30.treasury.api.common.event;
 
+import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * Owns the threads the {@link EventBus} runs on. All event classes share one bounded
+ * work-stealing pool; each event class gets its own queue, which is drained onto that pool.
+ * On Java 21 and newer, event tasks run on virtual threads instead, so subscribers which block,
+ * e.g. on {@link Completion#join(Completion...)} or on a database, don't tie up a pool thread.
+ * <p>
+ * The pool can be tuned with the following system properties:
+ * <ul>
+ *     <li>{@code treasury.event.executor} - {@code auto} (default) to use virtual threads when
+ *     the JVM supports them, {@code virtual} to ask for them explicitly or {@code pool} to
+ *     always use the pool. Without virtual thread support, the pool is used either way.</li>
+ *     <li>{@code treasury.event.parallelism} - amount of event threads. Defaults to the
+ *     amount of available processors, but never less than 2.</li>
+ *     <li>{@code treasury.event.rejectionPolicy} - what to do with a task fired after the
+ *     pool has been shut down. One of {@code caller_runs} (default), {@code abort} or
+ *     {@code discard}.</li>
+ *     <li>{@code treasury.event.queueCapacity} - how many fires of one event class may wait
+ *     to be started, 0 or less for no limit. Defaults to 65536.</li>
+ *     <li>{@code treasury.event.overflowPolicy} - the {@link OverflowPolicy} of a full
+ *     queue, {@code caller_runs} by default.</li>
+ * </ul>
+ * Both queue settings can be changed per event class via
+ * {@link EventBus#limitQueue(Class, int, OverflowPolicy)}.
+ */
 class EventExecutorTracker {
 
+    static final String EXECUTOR_PROPERTY = "treasury.event.executor";
+    static final String PARALLELISM_PROPERTY = "treasury.event.parallelism";
+    static final String REJECTION_POLICY_PROPERTY = "treasury.event.rejectionPolicy";
+    static final String QUEUE_CAPACITY_PROPERTY = "treasury.event.queueCapacity";
+    static final String OVERFLOW_POLICY_PROPERTY = "treasury.event.overflowPolicy";
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final String THREAD_NAME_PREFIX = "Treasury Event Thread #";
+
     public static final EventExecutorTracker INSTANCE = new EventExecutorTracker();
 
+    private final ExecutorService pool;
+    private final boolean virtual;
+    private final RejectionPolicy rejectionPolicy;
+    private final int defaultQueueCapacity;
+    private final OverflowPolicy defaultOverflowPolicy;
+    private final Map<Class<?>, EventExecutor> executors = new ConcurrentHashMap<>();
+
     private EventExecutorTracker() {
+        ExecutorService virtualThreads = null;
+        if (ExecutorMode.fromProperty(System.getProperty(EXECUTOR_PROPERTY)) != ExecutorMode.POOL) {
+            virtualThreads = newVirtualThreadExecutor();
+        }
+        this.virtual = virtualThreads != null;
+        this.pool = virtualThreads != null ? virtualThreads : newPool();
+        this.rejectionPolicy = RejectionPolicy.fromProperty(System.getProperty(
+                REJECTION_POLICY_PROPERTY));
+        this.defaultQueueCapacity = Integer.getInteger(QUEUE_CAPACITY_PROPERTY, 65536);
+        this.defaultOverflowPolicy = overflowPolicyFromProperty(System.getProperty(
+                OVERFLOW_POLICY_PROPERTY));
+    }
 
+    @NotNull
+    static OverflowPolicy overflowPolicyFromProperty(@Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return OverflowPolicy.CALLER_RUNS;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return OverflowPolicy.CALLER_RUNS;
+        }
     }
 
-    private Map<Class<?>, ExecutorService> executors = new ConcurrentHashMap<>();
+    @NotNull
+    private static ForkJoinPool newPool() {
+        int parallelism = Math.max(
+                2,
+                Integer.getInteger(PARALLELISM_PROPERTY,
+                        Runtime.getRuntime().availableProcessors()
+                )
+        );
+        AtomicInteger amountOfThreads = new AtomicInteger(0);
+        return new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = new ForkJoinWorkerThread(forkJoinPool) {};
+            thread.setName(THREAD_NAME_PREFIX + amountOfThreads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
 
-    public ExecutorService getExecutor(Class<?> eventClass) {
-        return executors.computeIfAbsent(eventClass,
-                k -> Executors.newCachedThreadPool(new ThreadFactory() {
+    // The API is compiled for Java 8, so the Java 21 virtual thread API is looked up reflectively.
+    @Nullable
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass
+                    .getMethod("name", String.class, long.class)
+                    .invoke(builder, THREAD_NAME_PREFIX, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass
+                    .getMethod("factory")
+                    .invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // older JVM, or virtual threads are still a preview feature which isn't enabled
+            return null;
+        }
+    }
 
-                    private AtomicInteger amountOfThreads = new AtomicInteger(0);
+    @NotNull
+    public Executor getExecutor(@NotNull Class<?> eventClass) {
+        return getEventExecutor(eventClass);
+    }
 
-                    @Override
-                    public Thread newThread(@NotNull final Runnable r) {
-                        Thread thread = new Thread(r);
-                        thread.setName("Event " + eventClass.getSimpleName() + " caller thread #" + amountOfThreads.get());
-                        amountOfThreads.incrementAndGet();
-                        return thread;
-                    }
-                })
-        );
+    @NotNull
+    EventExecutor getEventExecutor(@NotNull Class<?> eventClass) {
+        return executors.computeIfAbsent(eventClass, EventExecutor::new);
+    }
+
+    int getPendingFires(@NotNull Class<?> eventClass) {
+        EventExecutor executor = executors.get(eventClass);
+        return executor == null ? 0 : executor.getPendingFires();
+    }
+
+    int getCapacity(@NotNull Class<?> eventClass) {
+        EventExecutor executor = executors.get(eventClass);
+        return executor == null ? defaultQueueCapacity : executor.getCapacity();
+    }
+
+    long getOverflows(@NotNull Class<?> eventClass) {
+        EventExecutor executor = executors.get(eventClass);
+        return executor == null ? 0 : executor.getOverflows();
+    }
+
+    static boolean isEventThread() {
+        return Thread.currentThread().getName().startsWith(THREAD_NAME_PREFIX);
+    }
+
+    boolean isVirtual() {
+        return virtual;
+    }
+
+    // -1 when running on virtual threads, which aren't bounded
+    int getParallelism() {
+        return virtual ? -1 : ((ForkJoinPool) pool).getParallelism();
+    }
+
+    int getPoolSize() {
+        return virtual ? -1 : ((ForkJoinPool) pool).getPoolSize();
     }
 
     void shutdown() {
-        for (ExecutorService executor : executors.values()) {
-            executor.shutdown();
+        EventWatchdog.INSTANCE.shutdown();
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Waits for the specified {@link CountDownLatch} in a way that lets the event pool start a
+     * compensating thread if the caller is one of its workers, so a blocked event thread can
+     * never starve the tasks it is waiting for.
+     *
+     * @param latch latch to wait for
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static void await(@NotNull CountDownLatch latch) throws InterruptedException {
+        if (latch.getCount() == 0) {
+            return;
+        }
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                latch.await();
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return latch.getCount() == 0;
+            }
+        });
+    }
+
+    enum ExecutorMode {
+        AUTO,
+        POOL,
+        VIRTUAL;
+
+        static ExecutorMode fromProperty(String value) {
+            if (value == null || value.isEmpty()) {
+                return AUTO;
+            }
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return AUTO;
+            }
+        }
+    }
+
+    enum RejectionPolicy {
+        CALLER_RUNS,
+        ABORT,
+        DISCARD;
+
+        static RejectionPolicy fromProperty(String value) {
+            if (value == null || value.isEmpty()) {
+                return CALLER_RUNS;
+            }
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return CALLER_RUNS;
+            }
+        }
+    }
+
+    /**
+     * Per event class queue. Every queued task gets exactly one drain submitted to the shared
+     * pool, so tasks of one event class are started in the order they were fired.
+     * <p>
+     * Fires have to be {@link #admit(FireTask, boolean) admitted} first, which bounds how
+     * many of them wait to be started, on this queue or on an ordering lane. Other tasks, which
+     * continue work already admitted, are never held back.
+     */
+    final class EventExecutor implements Executor {
+
+        private final Class<?> eventClass;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger(0);
+        private final AtomicInteger pendingFires = new AtomicInteger(0);
+        private final AtomicInteger blocked = new AtomicInteger(0);
+        private final AtomicLong overflows = new AtomicLong(0);
+        private final Object admission = new Object();
+        private volatile int capacity = defaultQueueCapacity;
+        private volatile OverflowPolicy overflowPolicy = defaultOverflowPolicy;
+
+        EventExecutor(@NotNull Class<?> eventClass) {
+            this.eventClass = eventClass;
+        }
+
+        void limit(int capacity, @NotNull OverflowPolicy overflowPolicy) {
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
+            synchronized (admission) {
+                admission.notifyAll();
+            }
+        }
+
+        int getCapacity() {
+            return capacity;
+        }
+
+        long getOverflows() {
+            return overflows.get();
+        }
+
+        int getPendingFires() {
+            return pendingFires.get();
+        }
+
+        /**
+         * Lets the specified fire in, applying the overflow policy if this queue is full.
+         *
+         * @return true if the caller should queue the task, false if it has already been run
+         *     or finished
+         */
+        boolean admit(@NotNull FireTask task, boolean ordered) {
+            if (tryAdmit(task)) {
+                return true;
+            }
+            overflows.incrementAndGet();
+            OverflowPolicy policy = overflowPolicy;
+            if (policy == OverflowPolicy.FAIL) {
+                task.reject(new RejectedExecutionException("Event queue of " + eventClass.getName()
+                        + " is full (capacity " + capacity + ")"));
+                return false;
+            }
+            if (policy == OverflowPolicy.DROP_OLDEST && dropOldest() && tryAdmit(task)) {
+                return true;
+            }
+            if (policy == OverflowPolicy.BLOCK || ordered) {
+                if (!isEventThread()) {
+                    try {
+                        awaitAdmission(task);
+                        return true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        task.reject(e);
+                        return false;
+                    }
+                }
+                if (ordered) {
+                    // an event thread can't wait for room, and running the fire right here
+                    // would let it overtake the earlier fires of its key: it goes onto its lane
+                    // past the capacity instead
+                    pendingFires.incrementAndGet();
+                    task.admittedBy(this);
+                    return true;
+                }
+            }
+            task.run();
+            return false;
+        }
+
+        private boolean tryAdmit(@NotNull FireTask task) {
+            for (; ; ) {
+                int pending = pendingFires.get();
+                int capacity = this.capacity;
+                if (capacity > 0 && pending >= capacity) {
+                    return false;
+                }
+                if (pendingFires.compareAndSet(pending, pending + 1)) {
+                    task.admittedBy(this);
+                    return true;
+                }
+            }
+        }
+
+        private void awaitAdmission(@NotNull FireTask task) throws InterruptedException {
+            blocked.incrementAndGet();
+            try {
+                synchronized (admission) {
+                    while (!tryAdmit(task)) {
+                        admission.wait();
+                    }
+                }
+            } finally {
+                blocked.decrementAndGet();
+            }
+        }
+
+        private boolean dropOldest() {
+            for (Runnable task : queue) {
+                if (task instanceof FireTask && ((FireTask) task).drop(new RejectedExecutionException(
+                        "Dropped from the full event queue of " + eventClass.getName()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // called once an admitted fire leaves the queue
+        void fireStarted() {
+            pendingFires.decrementAndGet();
+            if (blocked.get() > 0) {
+                synchronized (admission) {
+                    admission.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void execute(@NotNull Runnable task) {
+            queue.offer(task);
+            queued.incrementAndGet();
+            try {
+                pool.execute(this::runNext);
+            } catch (RejectedExecutionException e) {
+                if (!queue.remove(task)) {
+                    // a drain which was already submitted picked the task up
+                    return;
+                }
+                queued.decrementAndGet();
+                switch (rejectionPolicy) {
+                    case ABORT:
+                        throw new RejectedExecutionException("Event executor for "
+                                + eventClass.getName() + " has been shut down", e);
+                    case DISCARD:
+                        return;
+                    case CALLER_RUNS:
+                    default:
+                        task.run();
+                }
+            }
+        }
+
+        private void runNext() {
+            Runnable task = queue.poll();
+            if (task == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            task.run();
+        }
+
+        int getQueued() {
+            return queued.get();
+        }
+
+        @Override
+        public String toString() {
+            return "EventExecutor{eventClass=" + eventClass + ", queued=" + queued.get() + '}';
+        }
+
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Serial lanes for events fired in order of their routing key. Keys are hashed onto a fixed
+ * amount of lanes; a lane starts a task only once the {@link Completion} of the one before it
+ * has completed, so events with equal keys are delivered one after another, in the order they
+ * were fired, while other lanes keep the event threads busy. The amount of lanes can be set
+ * with the {@code treasury.event.lanes} system property and defaults to four per available
+ * processor.
+ */
+final class EventLanes {
+
+    static final String LANES_PROPERTY = "treasury.event.lanes";
+
+    // tasks a lane runs before handing its thread back to other work
+    private static final int DRAIN_BATCH = 64;
+
+    static final EventLanes INSTANCE = new EventLanes(Integer.getInteger(
+            LANES_PROPERTY,
+            4 * Runtime.getRuntime().availableProcessors()
+    ));
+
+    private final Lane[] lanes;
+    private final int mask;
+
+    EventLanes(int amount) {
+        int size = Integer.highestOneBit(Math.max(2, amount) - 1) << 1;
+        this.lanes = new Lane[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new Lane();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Queues the specified task on the lane of the specified key. The lane is drained on the
+     * specified executor.
+     */
+    void submit(
+            @NotNull Object key, @NotNull Executor executor, @NotNull Supplier<Completion> task
+    ) {
+        int hash = key.hashCode();
+        lanes[(hash ^ (hash >>> 16)) & mask].submit(executor, task);
+    }
+
+    int size() {
+        return lanes.length;
+    }
+
+    private static final class Lane {
+
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        void submit(@NotNull Executor executor, @NotNull Supplier<Completion> task) {
+            queue.offer(new Task(executor, task));
+            if (draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        // must only be called by whoever holds the draining flag
+        private void schedule() {
+            Task next = queue.peek();
+            if (next != null) {
+                next.executor.execute(this::drain);
+                return;
+            }
+            draining.set(false);
+            // a task offered after the peek would otherwise wait for the next submit
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        private void drain() {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Task task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                Completion completion;
+                try {
+                    completion = task.task.get();
+                } catch (Throwable error) {
+                    error.printStackTrace();
+                    continue;
+                }
+                if (!completion.isCompleted()) {
+                    completion.whenComplete(errors -> schedule());
+                    return;
+                }
+            }
+            schedule();
+        }
+
+    }
+
+    private static final class Task {
+
+        final Executor executor;
+        final Supplier<Completion> task;
+
+        Task(@NotNull Executor executor, @NotNull Supplier<Completion> task) {
+            this.executor = executor;
+            this.task = task;
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records what the {@link EventBus} does, for {@link EventBusStats}. Recording is off unless
+ * enabled via {@link EventBus#setStatsEnabled(boolean)} or the {@code treasury.event.stats}
+ * system property; while off, firing only pays for one volatile read per fire and per
+ * subscriber call.
+ */
+final class EventMetrics {
+
+    static final String ENABLED_PROPERTY = "treasury.event.stats";
+
+    static final EventMetrics INSTANCE = new EventMetrics();
+
+    private volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private volatile long since = System.currentTimeMillis();
+    private final Map<Class<?>, EventMetricsEntry> events = new ConcurrentHashMap<>();
+    private final Map<EventSubscriber<?>, SubscriberMetricsEntry> subscribers = new ConcurrentHashMap<>();
+
+    private EventMetrics() {
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Nullable
+    EventMetricsEntry forEvent(@NotNull Class<?> eventClass) {
+        if (!enabled) {
+            return null;
+        }
+        return events.computeIfAbsent(eventClass, EventMetricsEntry::new);
+    }
+
+    @Nullable
+    SubscriberMetricsEntry forSubscriber(@NotNull EventSubscriber<?> subscriber) {
+        if (!enabled) {
+            return null;
+        }
+        return subscribers.computeIfAbsent(subscriber, SubscriberMetricsEntry::new);
+    }
+
+    void remove(@NotNull EventSubscriber<?> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    void reset() {
+        events.clear();
+        subscribers.clear();
+        since = System.currentTimeMillis();
+    }
+
+    @NotNull
+    EventBusStats snapshot() {
+        EventExecutorTracker tracker = EventExecutorTracker.INSTANCE;
+        List<EventBusStats.EventStats> eventStats = new ArrayList<>(events.size());
+        for (EventMetricsEntry entry : events.values()) {
+            eventStats.add(new EventBusStats.EventStats(
+                    entry.eventClass,
+                    entry.fires.sum(),
+                    entry.errors.sum(),
+                    entry.inFlight.sum(),
+                    tracker.getPendingFires(entry.eventClass),
+                    tracker.getCapacity(entry.eventClass),
+                    tracker.getOverflows(entry.eventClass),
+                    entry.latency.snapshot()
+            ));
+        }
+        List<EventBusStats.SubscriberStats> subscriberStats = new ArrayList<>(subscribers.size());
+        for (SubscriberMetricsEntry entry : subscribers.values()) {
+            subscriberStats.add(new EventBusStats.SubscriberStats(
+                    entry.subscriber,
+                    entry.calls.sum(),
+                    entry.errors.sum(),
+                    entry.latency.snapshot()
+            ));
+        }
+        return new EventBusStats(enabled, since, eventStats, subscriberStats);
+    }
+
+    static final class EventMetricsEntry {
+
+        private final Class<?> eventClass;
+        private final LongAdder fires = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        EventMetricsEntry(@NotNull Class<?> eventClass) {
+            this.eventClass = eventClass;
+        }
+
+        long fireStarted(int amount) {
+            fires.add(amount);
+            inFlight.add(amount);
+            return System.nanoTime();
+        }
+
+        void fireCompleted(long start, int amount, int failed) {
+            inFlight.add(-amount);
+            errors.add(failed);
+            latency.record(System.nanoTime() - start);
+        }
+
+    }
+
+    static final class SubscriberMetricsEntry {
+
+        private final EventSubscriber<?> subscriber;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        SubscriberMetricsEntry(@NotNull EventSubscriber<?> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void called(long start, boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            latency.record(System.nanoTime() - start);
+        }
+
+    }
+
+}
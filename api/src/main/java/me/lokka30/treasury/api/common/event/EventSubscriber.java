@@ -7,6 +7,7 @@ package me.lokka30.treasury.api.common.event;
 import java.util.Objects;
 import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a subscriber of an event. This should be used only if you want to block event
@@ -107,6 +108,7 @@ public abstract class EventSubscriber<T> implements Comparable<EventSubscriber<T
     private final Class<T> eventClass;
     private final EventPriority priority;
     private final boolean ignoreCancelled;
+    private final boolean readOnly;
 
     public EventSubscriber(@NotNull Class<T> eventClass) {
         this(eventClass, EventPriority.NORMAL);
@@ -122,10 +124,29 @@ public abstract class EventSubscriber<T> implements Comparable<EventSubscriber<T
 
     public EventSubscriber(
             @NotNull Class<T> eventClass, @NotNull EventPriority priority, boolean ignoreCancelled
+    ) {
+        this(eventClass, priority, ignoreCancelled, false);
+    }
+
+    /**
+     * Creates a new {@link EventSubscriber}.
+     *
+     * @param eventClass event class
+     * @param priority event priority
+     * @param ignoreCancelled whether to ignore cancelled event object(s)
+     * @param readOnly whether this subscriber only reads the event, see {@link #readOnly()}
+     * @since v1.2.1
+     */
+    public EventSubscriber(
+            @NotNull Class<T> eventClass,
+            @NotNull EventPriority priority,
+            boolean ignoreCancelled,
+            boolean readOnly
     ) {
         this.eventClass = Objects.requireNonNull(eventClass, "eventClass");
         this.priority = Objects.requireNonNull(priority, "priority");
         this.ignoreCancelled = ignoreCancelled;
+        this.readOnly = readOnly;
     }
 
     /**
@@ -157,6 +178,63 @@ public abstract class EventSubscriber<T> implements Comparable<EventSubscriber<T
         return ignoreCancelled;
     }
 
+    /**
+     * Returns whether this subscriber only reads the events it gets, without modifying or
+     * cancelling them. Read-only subscribers of the same {@link EventPriority} are called
+     * concurrently, after the other subscribers of that priority, and all of them have to
+     * complete before the next priority is called.
+     *
+     * @return true if read-only
+     * @since v1.2.1
+     */
+    public boolean readOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Returns how long, in milliseconds, this subscriber may take to complete the
+     * {@link Completion} it returned. Once that time has passed the event carries on to the
+     * next subscribers, and completes with a {@link SubscriberTimeoutException} when done.
+     * Override this to change it: {@code 0} uses the default of the
+     * {@code treasury.event.subscriberTimeoutMillis} system property (30 seconds), while a
+     * negative value makes this subscriber never time out.
+     *
+     * @return timeout in milliseconds
+     * @since v1.2.1
+     */
+    public long timeoutMillis() {
+        return 0;
+    }
+
+    /**
+     * Returns the function which extracts the key of the events this subscriber gets, if it
+     * only wants events of one {@link #key()}. Subscribers sharing the same extractor instance,
+     * like {@link me.lokka30.treasury.api.economy.events.AccountTransactionEvent#BY_CURRENCY},
+     * are indexed by key, so firing an event skips those with other keys without calling them.
+     * An extractor which throws or returns null matches no key.
+     * <p>
+     * Override this together with {@link #key()} to filter; by default nothing is filtered.
+     *
+     * @return key extractor, or null if this subscriber gets every event
+     * @since v1.2.1
+     */
+    @Nullable
+    public Function<? super T, ?> keyExtractor() {
+        return null;
+    }
+
+    /**
+     * Returns the key the events this subscriber gets must have, as extracted by
+     * {@link #keyExtractor()}. Keys are compared with {@link Object#equals(Object)}.
+     *
+     * @return key, or null if this subscriber gets every event
+     * @since v1.2.1
+     */
+    @Nullable
+    public Object key() {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,223 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents the most recent dispatch stages the {@link EventBus} traced while tracing was
+ * enabled, oldest first. Meant for finding out which subscriber, thread or wait made an event
+ * slow.
+ *
+ * @see EventBus#getTrace()
+ * @see EventBus#setTracingEnabled(boolean)
+ * @since v1.2.1
+ */
+public final class EventTrace {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final List<Entry> entries;
+
+    EventTrace(boolean enabled, int capacity, @NotNull List<Entry> entries) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns whether tracing was enabled when this trace was taken.
+     *
+     * @return enabled or not
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns how many entries are kept at most. Older entries are overwritten.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the traced entries, oldest first.
+     *
+     * @return entries
+     */
+    @NotNull
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Represents a stage of dispatching an event.
+     *
+     * @since v1.2.1
+     */
+    public enum Stage {
+
+        /**
+         * From firing the event until an event thread started calling its subscribers.
+         */
+        QUEUED,
+
+        /**
+         * From calling a subscriber until the {@link Completion} it returned completed.
+         */
+        SUBSCRIBER,
+
+        /**
+         * From firing the event until every subscriber completed.
+         */
+        FIRE
+    }
+
+    /**
+     * Represents one traced dispatch stage.
+     *
+     * @since v1.2.1
+     */
+    public static final class Entry {
+
+        private final long sequence;
+        private final Stage stage;
+        private final Class<?> eventClass;
+        private final EventSubscriber<?> subscriber;
+        private final long startNanos;
+        private final long endNanos;
+        private final Thread thread;
+        private final Throwable error;
+
+        Entry(
+                long sequence,
+                @NotNull Stage stage,
+                @NotNull Class<?> eventClass,
+                @Nullable EventSubscriber<?> subscriber,
+                long startNanos,
+                long endNanos,
+                @NotNull Thread thread,
+                @Nullable Throwable error
+        ) {
+            this.sequence = sequence;
+            this.stage = stage;
+            this.eventClass = eventClass;
+            this.subscriber = subscriber;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.thread = thread;
+            this.error = error;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Returns the traced stage.
+         *
+         * @return stage
+         */
+        @NotNull
+        public Stage getStage() {
+            return stage;
+        }
+
+        /**
+         * Returns the class of the dispatched event.
+         *
+         * @return event class
+         */
+        @NotNull
+        public Class<?> getEventClass() {
+            return eventClass;
+        }
+
+        /**
+         * Returns the called subscriber, for {@link Stage#SUBSCRIBER} entries.
+         *
+         * @return subscriber or null
+         */
+        @Nullable
+        public EventSubscriber<?> getSubscriber() {
+            return subscriber;
+        }
+
+        /**
+         * Returns the priority of the called subscriber, for {@link Stage#SUBSCRIBER} entries.
+         *
+         * @return priority or null
+         */
+        @Nullable
+        public EventPriority getPriority() {
+            return subscriber == null ? null : subscriber.priority();
+        }
+
+        /**
+         * Returns the {@link System#nanoTime()} the stage started at.
+         *
+         * @return start nanos
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * Returns the {@link System#nanoTime()} the stage ended at.
+         *
+         * @return end nanos
+         */
+        public long getEndNanos() {
+            return endNanos;
+        }
+
+        /**
+         * Returns how long the stage took.
+         *
+         * @param unit the unit to return the duration in
+         * @return duration
+         */
+        public long getDuration(@NotNull TimeUnit unit) {
+            return unit.convert(endNanos - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the name of the thread the stage started on: the firing thread for
+         * {@link Stage#FIRE}, the event thread which picked the event up for
+         * {@link Stage#QUEUED} and the calling thread for {@link Stage#SUBSCRIBER}.
+         *
+         * @return thread name
+         */
+        @NotNull
+        public String getThread() {
+            return thread.getName();
+        }
+
+        /**
+         * Returns the first error the stage ended with, if any.
+         *
+         * @return error or null
+         */
+        @Nullable
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{stage=" + stage + ", eventClass=" + eventClass.getName()
+                    + ", subscriber=" + subscriber + ", durationNanos=" + (endNanos - startNanos)
+                    + ", thread=" + thread.getName() + ", error=" + error + '}';
+        }
+
+    }
+
+}
@@ -4,39 +4,59 @@
 
 package me.lokka30.treasury.api.common.event;
 
-import com.google.common.reflect.TypeToken;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
 
+/**
+ * Resolves the supertypes ("friends") of event classes. Every class is resolved once; the
+ * result is held by a {@link ClassValue}, which makes lookups lock-free and lets concurrent
+ * first fires of the same class agree on a single result.
+ */
 class EventTypeTracker {
 
-    private Map<Class<?>, List<Class<?>>> friends = new HashMap<>();
-
-    public List<Class<?>> getFriendsOf(Class<?> eventType) {
-        if (friends.containsKey(eventType)) {
-            return Collections.unmodifiableList(friends.get(eventType));
+    private static final ClassValue<List<Class<?>>> FRIENDS = new ClassValue<List<Class<?>>>() {
+        @Override
+        protected List<Class<?>> computeValue(@NotNull Class<?> type) {
+            return Collections.unmodifiableList(resolveFriends(type));
         }
+    };
 
-        List<Class<?>> types = getEventTypes(eventType);
-        friends.put(
-                eventType,
-                types.stream().filter(type -> type != eventType).collect(Collectors.toList())
-        );
-
-        return friends.get(eventType);
+    @NotNull
+    public List<Class<?>> getFriendsOf(@NotNull Class<?> eventType) {
+        return FRIENDS.get(eventType);
     }
 
-    private static List<Class<?>> getEventTypes(Class<?> eventType) {
-        return TypeToken
-                .of(eventType)
-                .getTypes()
-                .rawTypes()
-                .stream()
-                .filter(type -> type != Object.class && type != Cancellable.class)
-                .collect(Collectors.toList());
+    // breadth first, so the nearest supertypes come first
+    @NotNull
+    private static List<Class<?>> resolveFriends(@NotNull Class<?> eventType) {
+        Set<Class<?>> seen = new LinkedHashSet<>();
+        Deque<Class<?>> toVisit = new ArrayDeque<>();
+        toVisit.add(eventType);
+        while (!toVisit.isEmpty()) {
+            Class<?> type = toVisit.poll();
+            if (!seen.add(type)) {
+                continue;
+            }
+            Class<?> superclass = type.getSuperclass();
+            if (superclass != null) {
+                toVisit.add(superclass);
+            }
+            Collections.addAll(toVisit, type.getInterfaces());
+        }
+
+        List<Class<?>> friends = new ArrayList<>(seen.size());
+        for (Class<?> type : seen) {
+            if (type != eventType && type != Object.class && type != Cancellable.class) {
+                friends.add(type);
+            }
+        }
+        return friends;
     }
 
 }
@@ -0,0 +1,189 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Puts deadlines on subscribers and fires, and warns about slow subscribers. Tuned with the
+ * following system properties:
+ * <ul>
+ *     <li>{@code treasury.event.subscriberTimeoutMillis} - how long a subscriber may take
+ *     to complete unless it asks for something else via
+ *     {@link EventSubscriber#timeoutMillis()}. Defaults to 30 seconds, 0 or less disables
+ *     it.</li>
+ *     <li>{@code treasury.event.fireTimeoutMillis} - how long a fire may take, from firing
+ *     until the last subscriber completed. Disabled by default.</li>
+ *     <li>{@code treasury.event.slowSubscriberMillis} - subscribers taking longer than this
+ *     are logged, at most once a minute each. Defaults to 100ms, 0 or less disables it.</li>
+ * </ul>
+ * Deadlines are only scheduled for subscribers which don't complete right away.
+ */
+final class EventWatchdog {
+
+    static final String SUBSCRIBER_TIMEOUT_PROPERTY = "treasury.event.subscriberTimeoutMillis";
+    static final String FIRE_TIMEOUT_PROPERTY = "treasury.event.fireTimeoutMillis";
+    static final String SLOW_SUBSCRIBER_PROPERTY = "treasury.event.slowSubscriberMillis";
+
+    static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    static final EventWatchdog INSTANCE = new EventWatchdog();
+
+    private final Logger logger = Logger.getLogger("Treasury Events");
+    private final long subscriberTimeoutMillis;
+    private final long fireTimeoutNanos;
+    private final long slowSubscriberNanos;
+    private final Map<EventSubscriber<?>, Long> lastWarned = new ConcurrentHashMap<>();
+    private volatile ScheduledThreadPoolExecutor scheduler;
+
+    private EventWatchdog() {
+        this.subscriberTimeoutMillis = Long.getLong(SUBSCRIBER_TIMEOUT_PROPERTY, 30_000);
+        this.fireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong(FIRE_TIMEOUT_PROPERTY,
+                0
+        ));
+        this.slowSubscriberNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong(
+                SLOW_SUBSCRIBER_PROPERTY,
+                100
+        ));
+    }
+
+    long deadline(long timeout, @NotNull TimeUnit unit) {
+        return timeout > 0 ? System.nanoTime() + unit.toNanos(timeout) : NO_DEADLINE;
+    }
+
+    long defaultDeadline() {
+        return deadline(fireTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static boolean isPast(long deadline) {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Watches a subscriber's {@link Completion}: the returned completion completes like
+     * {@code completion} does, or with a {@link SubscriberTimeoutException} once the
+     * subscriber's timeout or the fire's {@code deadline} passes, whichever is first.
+     */
+    @NotNull
+    Completion watch(
+            @NotNull EventSubscriber<?> subscriber,
+            @NotNull Completion completion,
+            long start,
+            long deadline
+    ) {
+        if (completion.isCompleted()) {
+            checkLatency(subscriber, System.nanoTime() - start);
+            return completion;
+        }
+
+        long timeoutMillis = subscriber.timeoutMillis();
+        if (timeoutMillis == 0) {
+            timeoutMillis = subscriberTimeoutMillis;
+        }
+        long timeoutNanos = timeoutMillis > 0
+                ? TimeUnit.MILLISECONDS.toNanos(timeoutMillis)
+                : Long.MAX_VALUE;
+        if (deadline != NO_DEADLINE) {
+            timeoutNanos = Math.min(timeoutNanos, deadline - start);
+        }
+        if (timeoutNanos == Long.MAX_VALUE) {
+            completion.whenComplete(errors -> checkLatency(subscriber,
+                    System.nanoTime() - start
+            ));
+            return completion;
+        }
+
+        Completion watched = new Completion();
+        AtomicBoolean done = new AtomicBoolean(false);
+        long delay = Math.max(0, timeoutNanos - (System.nanoTime() - start));
+        long reportedMillis = TimeUnit.NANOSECONDS.toMillis(timeoutNanos);
+        ScheduledFuture<?> timeout = scheduler().schedule(() -> {
+            if (done.compareAndSet(false, true)) {
+                logger.warning("Subscriber " + subscriber.getClass().getName() + " of event "
+                        + subscriber.eventClass().getName() + " timed out after "
+                        + reportedMillis + "ms, the event carries on without it");
+                watched.completeExceptionally(new SubscriberTimeoutException(subscriber,
+                        reportedMillis
+                ));
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+        completion.whenComplete(errors -> {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            timeout.cancel(false);
+            checkLatency(subscriber, System.nanoTime() - start);
+            if (errors.isEmpty()) {
+                watched.complete();
+            } else {
+                watched.completeExceptionally(errors);
+            }
+        });
+        return watched;
+    }
+
+    void checkLatency(@NotNull EventSubscriber<?> subscriber, long nanos) {
+        if (slowSubscriberNanos <= 0 || nanos < slowSubscriberNanos) {
+            return;
+        }
+        long now = System.nanoTime();
+        Long last = lastWarned.get(subscriber);
+        if (last != null && now - last < WARN_INTERVAL_NANOS) {
+            return;
+        }
+        lastWarned.put(subscriber, now);
+        logger.log(Level.WARNING,
+                "Subscriber {0} of event {1} took {2}ms, which is over the budget of {3}ms",
+                new Object[]{
+                        subscriber.getClass().getName(),
+                        subscriber.eventClass().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(nanos),
+                        TimeUnit.NANOSECONDS.toMillis(slowSubscriberNanos)
+                }
+        );
+    }
+
+    void forget(@NotNull EventSubscriber<?> subscriber) {
+        lastWarned.remove(subscriber);
+    }
+
+    @NotNull
+    private ScheduledThreadPoolExecutor scheduler() {
+        ScheduledThreadPoolExecutor scheduler = this.scheduler;
+        if (scheduler != null) {
+            return scheduler;
+        }
+        synchronized (this) {
+            if (this.scheduler == null) {
+                ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, task -> {
+                    Thread thread = new Thread(task, "Treasury Event Watchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                created.setRemoveOnCancelPolicy(true);
+                this.scheduler = created;
+            }
+            return this.scheduler;
+        }
+    }
+
+    synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+}
@@ -4,9 +4,12 @@
 
 package me.lokka30.treasury.api.common.event;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
@@ -15,6 +18,11 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a {@link Completion} which is used when an event is fired.
+ * <p>
+ * Like {@link Completion}, this is built on callbacks: completing it runs every task registered
+ * via {@link #whenComplete(BiConsumer)} or {@link #whenCompleteAsync(BiConsumer)}, so no thread
+ * has to wait for the event to be called unless {@link #whenCompleteBlocking(BiConsumer)} or
+ * {@link #waitCompletion()} is explicitly used.
  *
  * @param <T> event type
  * @author MrIvanPlays
@@ -22,18 +30,25 @@ import org.jetbrains.annotations.Nullable;
  */
 public final class FireCompletion<T> {
 
-    private CountDownLatch latch = new CountDownLatch(1);
-    private final Executor async;
+    private final Class<?> event;
 
+    private volatile boolean completed;
     @Nullable
     private T result;
     @Nullable
     private Collection<@NotNull Throwable> errors;
+    @Nullable
+    private List<BiConsumer<T, Collection<Throwable>>> callbacks;
 
     public FireCompletion(@NotNull Class<?> event) {
-        this.async = EventExecutorTracker.INSTANCE.getExecutor(Objects.requireNonNull(event,
-                "event"
-        ));
+        this.event = Objects.requireNonNull(event, "event");
+    }
+
+    // already completed with the specified result
+    FireCompletion(@NotNull Class<?> event, @NotNull T result) {
+        this.event = event;
+        this.result = result;
+        this.completed = true;
     }
 
     /**
@@ -43,11 +58,8 @@ public final class FireCompletion<T> {
      * @throws IllegalStateException if this completion got already completed
      */
     public void complete(@NotNull T result) {
-        if (latch.getCount() == 0) {
-            throw new IllegalStateException("FireCompletion already completed");
-        }
-        this.result = Objects.requireNonNull(result, "result");
-        latch.countDown();
+        Objects.requireNonNull(result, "result");
+        doComplete(result, null);
     }
 
     /**
@@ -58,11 +70,56 @@ public final class FireCompletion<T> {
      * @throws IllegalStateException if this completion got already completed
      */
     public void completeExceptionally(@NotNull Collection<@NotNull Throwable> errors) {
-        if (latch.getCount() == 0) {
-            throw new IllegalStateException("FireCompletion already completed");
+        Objects.requireNonNull(errors, "errors");
+        doComplete(null, errors);
+    }
+
+    private void doComplete(@Nullable T result, @Nullable Collection<Throwable> errors) {
+        List<BiConsumer<T, Collection<Throwable>>> toRun;
+        synchronized (this) {
+            if (completed) {
+                throw new IllegalStateException("FireCompletion already completed");
+            }
+            this.result = result;
+            this.errors = errors;
+            this.completed = true;
+            toRun = this.callbacks;
+            this.callbacks = null;
+        }
+        if (toRun != null) {
+            Collection<Throwable> resultErrors = getErrors();
+            for (BiConsumer<T, Collection<Throwable>> callback : toRun) {
+                runCallback(callback, result, resultErrors);
+            }
         }
-        this.errors = Objects.requireNonNull(errors, "errors");
-        latch.countDown();
+    }
+
+    private static <T> void runCallback(
+            @NotNull BiConsumer<T, Collection<Throwable>> callback,
+            @Nullable T result,
+            @NotNull Collection<Throwable> errors
+    ) {
+        try {
+            callback.accept(result, errors);
+        } catch (Throwable error) {
+            error.printStackTrace();
+        }
+    }
+
+    @NotNull
+    private Collection<Throwable> getErrors() {
+        Collection<Throwable> errors = this.errors;
+        return errors == null ? Collections.emptyList() : errors;
+    }
+
+    /**
+     * Returns whether this completion is completed.
+     *
+     * @return completed or not
+     * @since v1.2.1
+     */
+    public boolean isCompleted() {
+        return completed;
     }
 
     /**
@@ -71,16 +128,54 @@ public final class FireCompletion<T> {
      * to use this method, it is highly recommended that you do it asynchronously.</b>
      */
     public void waitCompletion() {
+        awaitCompletion();
+        if (completed) {
+            for (Throwable e : getErrors()) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void awaitCompletion() {
+        if (completed) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        whenComplete((result, errors) -> latch.countDown());
         try {
-            latch.await();
+            EventExecutorTracker.await(latch);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
-        if (errors != null && !errors.isEmpty()) {
-            for (Throwable e : errors) {
-                e.printStackTrace();
+    }
+
+    /**
+     * Runs the specified {@link BiConsumer} task when this completion completes. If this
+     * completion is already completed, the task is ran immediately on the calling thread,
+     * otherwise it is ran on the thread which completes this completion. This method does not
+     * block.
+     *
+     * @param completedTask task to run
+     * @since v1.2.1
+     */
+    public void whenComplete(
+            @Nullable BiConsumer<@Nullable T, @NotNull Collection<@NotNull Throwable>> completedTask
+    ) {
+        if (completedTask == null) {
+            return;
+        }
+        if (!completed) {
+            synchronized (this) {
+                if (!completed) {
+                    if (callbacks == null) {
+                        callbacks = new ArrayList<>(2);
+                    }
+                    callbacks.add(completedTask);
+                    return;
+                }
             }
         }
+        completedTask.accept(result, getErrors());
     }
 
     /**
@@ -93,17 +188,12 @@ public final class FireCompletion<T> {
     public void whenCompleteBlocking(
             @Nullable BiConsumer<@Nullable T, @NotNull Collection<@NotNull Throwable>> completedTask
     ) {
-        if (completedTask != null) {
-            if (latch.getCount() == 0) {
-                completedTask.accept(result, errors == null ? Collections.emptyList() : errors);
-            } else {
-                try {
-                    latch.await();
-                    completedTask.accept(result, errors == null ? Collections.emptyList() : errors);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
+        if (completedTask == null) {
+            return;
+        }
+        awaitCompletion();
+        if (completed) {
+            completedTask.accept(result, getErrors());
         }
     }
 
@@ -115,8 +205,33 @@ public final class FireCompletion<T> {
      */
     public void whenCompleteAsync(@Nullable BiConsumer<@Nullable T, @NotNull Collection<@NotNull Throwable>> completedTask) {
         if (completedTask != null) {
-            async.execute(() -> whenCompleteBlocking(completedTask));
+            // resolved lazily, events fired synchronously usually never need it
+            Executor async = EventExecutorTracker.INSTANCE.getExecutor(event);
+            whenComplete((result, errors) -> async.execute(() -> completedTask.accept(result,
+                    errors
+            )));
         }
     }
 
+    /**
+     * Returns a {@link CompletableFuture} which completes with the fired event when this
+     * completion completes. Errors are reported the same way as
+     * {@link Completion#toCompletableFuture()} does.
+     *
+     * @return future
+     * @since v1.2.1
+     */
+    @NotNull
+    public CompletableFuture<T> toCompletableFuture() {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        whenComplete((result, errors) -> {
+            if (errors.isEmpty()) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(Completion.merge(errors));
+            }
+        });
+        return future;
+    }
+
 }
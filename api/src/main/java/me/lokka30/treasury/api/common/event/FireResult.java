@@ -0,0 +1,66 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents the outcome of calling one event of a batch fired via
+ * {@link EventBus#fireAll(Collection)}.
+ *
+ * @param <T> event type
+ * @since v1.2.1
+ */
+public final class FireResult<T> {
+
+    private final T event;
+    private final Collection<Throwable> errors;
+
+    FireResult(@NotNull T event, @Nullable Collection<Throwable> errors) {
+        this.event = Objects.requireNonNull(event, "event");
+        this.errors = errors == null ? Collections.emptyList() : errors;
+    }
+
+    /**
+     * Returns the event this result is for.
+     *
+     * @return event
+     */
+    @NotNull
+    public T event() {
+        return event;
+    }
+
+    /**
+     * Returns the errors which the subscribers of the event completed with. Calling a
+     * subscriber chain stops at the first subscriber which fails, same as
+     * {@link EventBus#fire(Object)} does.
+     *
+     * @return errors, empty if the event was called successfully
+     */
+    @NotNull
+    public Collection<@NotNull Throwable> errors() {
+        return errors;
+    }
+
+    /**
+     * Returns whether every subscriber of the event completed successfully.
+     *
+     * @return successful or not
+     */
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "FireResult{event=" + event + ", errors=" + errors.size() + '}';
+    }
+
+}
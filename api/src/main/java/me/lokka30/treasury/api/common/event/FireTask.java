@@ -0,0 +1,88 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One fire waiting for an event thread. Taking it off the queue is a race between the thread
+ * which starts it and an overflowing fire which drops it, so exactly one of them wins.
+ */
+final class FireTask implements Runnable {
+
+    private static final int PENDING = 0;
+    private static final int STARTED = 1;
+    private static final int DROPPED = 2;
+
+    private final Supplier<Completion> call;
+    private final Consumer<Collection<Throwable>> finish;
+    private final boolean droppable;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    // the executor whose queue capacity this task holds a slot of, if any
+    @Nullable
+    private volatile EventExecutorTracker.EventExecutor admittedBy;
+
+    /**
+     * @param call calls the subscribers and finishes the fire once they completed
+     * @param finish finishes the fire with the specified errors without calling anything
+     * @param droppable whether the task may be dropped when the queue overflows
+     */
+    FireTask(
+            @NotNull Supplier<Completion> call,
+            @NotNull Consumer<Collection<Throwable>> finish,
+            boolean droppable
+    ) {
+        this.call = call;
+        this.finish = finish;
+        this.droppable = droppable;
+    }
+
+    void admittedBy(@NotNull EventExecutorTracker.EventExecutor executor) {
+        this.admittedBy = executor;
+    }
+
+    @Override
+    public void run() {
+        start();
+    }
+
+    @NotNull
+    Completion start() {
+        if (!state.compareAndSet(PENDING, STARTED)) {
+            return Completion.completed();
+        }
+        release();
+        return call.get();
+    }
+
+    boolean drop(@NotNull Throwable reason) {
+        if (!droppable || !state.compareAndSet(PENDING, DROPPED)) {
+            return false;
+        }
+        release();
+        finish.accept(Collections.singletonList(reason));
+        return true;
+    }
+
+    void reject(@NotNull Throwable reason) {
+        if (state.compareAndSet(PENDING, DROPPED)) {
+            finish.accept(Collections.singletonList(reason));
+        }
+    }
+
+    private void release() {
+        EventExecutorTracker.EventExecutor executor = admittedBy;
+        if (executor != null) {
+            executor.fireStarted();
+        }
+    }
+
+}
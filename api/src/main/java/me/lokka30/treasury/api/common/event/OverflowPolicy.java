@@ -0,0 +1,44 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+/**
+ * Represents what {@link EventBus#fire(Object)} does when the queue of an event class is full.
+ *
+ * @see EventBus#limitQueue(Class, int, OverflowPolicy)
+ * @since v1.2.1
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The firing thread waits until the queue has room. Fires from an event thread run on
+     * that thread instead, as it could otherwise wait for itself, unless they are put in order,
+     * which are queued past the capacity.
+     */
+    BLOCK,
+
+    /**
+     * The event is called on the firing thread. Events put in order via
+     * {@link EventBus#orderBy(Class, java.util.function.Function)} wait for room instead, like
+     * with {@link #BLOCK}, so they can't overtake each other. When fired from an event thread,
+     * which can't wait, they are queued past the capacity.
+     */
+    CALLER_RUNS,
+
+    /**
+     * The oldest queued event which is neither {@link Cancellable} nor put in order is dropped
+     * to make room: its {@link FireCompletion} completes with a
+     * {@link java.util.concurrent.RejectedExecutionException} without any subscriber being
+     * called. If there is no such event, behaves like {@link #CALLER_RUNS}.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The {@link FireCompletion} of the new event completes with a
+     * {@link java.util.concurrent.RejectedExecutionException} without any subscriber being
+     * called.
+     */
+    FAIL
+}
@@ -110,6 +110,25 @@ public abstract class SimpleEventSubscriber<T> extends EventSubscriber<T> {
         super(eventClass, priority, ignoreCancelled);
     }
 
+    /**
+     * Creates a new {@link SimpleEventSubscriber}.
+     *
+     * @param eventClass event class
+     * @param priority event priority
+     * @param ignoreCancelled whether to ignore cancelled event object(s)
+     * @param readOnly whether this subscriber only reads the event
+     * @see EventSubscriber#readOnly()
+     * @since v1.2.1
+     */
+    public SimpleEventSubscriber(
+            @NotNull Class<T> eventClass,
+            @NotNull EventPriority priority,
+            boolean ignoreCancelled,
+            boolean readOnly
+    ) {
+        super(eventClass, priority, ignoreCancelled, readOnly);
+    }
+
     /**
      * Treasury's {@link EventBus} calls this method whenever a {@link EventBus#fire(Object)}
      * occurs with the event this subscription listens for. Difference between
@@ -0,0 +1,41 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.TimeoutException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the error an event is completed with when one of its {@link EventSubscriber
+ * EventSubscribers} did not complete within its {@link EventSubscriber#timeoutMillis() timeout}.
+ * Unlike other errors, a timeout doesn't stop the event from reaching the subscribers after
+ * the one which timed out.
+ *
+ * @since v1.2.1
+ */
+public final class SubscriberTimeoutException extends TimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EventSubscriber<?> subscriber;
+
+    SubscriberTimeoutException(@NotNull EventSubscriber<?> subscriber, long timeoutMillis) {
+        super("Subscriber " + subscriber.getClass().getName() + " of event " + subscriber
+                .eventClass()
+                .getName() + " did not complete within " + timeoutMillis + "ms");
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * Returns the subscriber which timed out.
+     *
+     * @return subscriber
+     */
+    @NotNull
+    public EventSubscriber<?> getSubscriber() {
+        return subscriber;
+    }
+
+}
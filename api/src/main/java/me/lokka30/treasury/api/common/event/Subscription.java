@@ -0,0 +1,94 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a handle to an {@link EventSubscriber} which has been subscribed to the
+ * {@link EventBus}. Keep it around if you ever need to stop listening, e.g. when your plugin
+ * reloads.
+ *
+ * <p>Examples:
+ * <pre>
+ * Subscription subscription = EventBus.INSTANCE.subscribe(
+ *   "MyPlugin",
+ *   EventBus.INSTANCE.subscriptionFor(AnEvent.class)
+ *     .whenCalled(event -> {
+ *       // do stuff
+ *     })
+ *     .completeSubscription()
+ * );
+ *
+ * // later on
+ * subscription.unsubscribe();
+ * </pre>
+ *
+ * @see EventBus#subscribe(String, EventSubscriber)
+ * @see EventBus#unsubscribeAll(String)
+ * @since v1.2.1
+ */
+public final class Subscription {
+
+    private final EventSubscriber<?> subscriber;
+    private final String owner;
+    private volatile boolean active = true;
+
+    Subscription(@NotNull EventSubscriber<?> subscriber, @Nullable String owner) {
+        this.subscriber = Objects.requireNonNull(subscriber, "subscriber");
+        this.owner = owner;
+    }
+
+    /**
+     * Returns the {@link EventSubscriber} this subscription is for.
+     *
+     * @return subscriber
+     */
+    @NotNull
+    public EventSubscriber<?> subscriber() {
+        return subscriber;
+    }
+
+    /**
+     * Returns the owner this subscription was registered with, if any.
+     *
+     * @return owner or null
+     */
+    @Nullable
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Returns whether this subscription still receives events.
+     *
+     * @return true if still subscribed
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Unsubscribes the {@link EventSubscriber} of this subscription. Events fired after this
+     * call returns will not reach it. Calling this more than once does nothing.
+     *
+     * @return true if this call unsubscribed it, false if it was already unsubscribed
+     */
+    public boolean unsubscribe() {
+        return EventBus.INSTANCE.unsubscribe(this);
+    }
+
+    void deactivate() {
+        this.active = false;
+    }
+
+    @Override
+    public String toString() {
+        return "Subscription{subscriber=" + subscriber + ", owner=" + owner + ", active=" + active + '}';
+    }
+
+}
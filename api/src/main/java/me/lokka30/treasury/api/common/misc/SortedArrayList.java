@@ -0,0 +1,58 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.misc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Represents a sorted list backed by an array. Finding the insertion point is a binary search,
+ * O(log2n), and inserting moves the following elements with a single array copy. Unlike
+ * {@link SortedList}, getting an element by its index is O(1), and elements which compare
+ * equally are kept in the order they were added in.
+ *
+ * @param <T> type
+ * @since v1.2.1
+ */
+public class SortedArrayList<T extends Comparable<T>> extends ArrayList<T> {
+
+    public SortedArrayList() {
+        super();
+    }
+
+    public SortedArrayList(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    private int insertionIndex(T key) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(mid).compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public boolean add(T t) {
+        super.add(insertionIndex(t), t);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        ensureCapacity(size() + c.size());
+        for (T t : c) {
+            add(t);
+        }
+        return !c.isEmpty();
+    }
+
+}
@@ -19,7 +19,10 @@ public final class Service<T> implements Comparable<Service<?>>, Supplier<T> {
 
     private final String registrarName;
     private final ServicePriority priority;
-    private final T service;
+    private final Class<?> serviceType;
+    private volatile T service;
+    // set until a lazy service gets initialized
+    private Supplier<? extends T> supplier;
 
     public Service(
             @NotNull String registrarName, @NotNull ServicePriority priority, @NotNull T service
@@ -27,6 +30,19 @@ public final class Service<T> implements Comparable<Service<?>>, Supplier<T> {
         this.registrarName = Objects.requireNonNull(registrarName, "registrarName");
         this.priority = Objects.requireNonNull(priority, "priority");
         this.service = Objects.requireNonNull(service, "service");
+        this.serviceType = service.getClass();
+    }
+
+    Service(
+            @NotNull String registrarName,
+            @NotNull ServicePriority priority,
+            @NotNull Class<T> serviceType,
+            @NotNull Supplier<? extends T> supplier
+    ) {
+        this.registrarName = Objects.requireNonNull(registrarName, "registrarName");
+        this.priority = Objects.requireNonNull(priority, "priority");
+        this.serviceType = Objects.requireNonNull(serviceType, "serviceType");
+        this.supplier = Objects.requireNonNull(supplier, "supplier");
     }
 
     /**
@@ -48,18 +64,70 @@ public final class Service<T> implements Comparable<Service<?>>, Supplier<T> {
     }
 
     /**
-     * Returns the held service.
+     * Returns a class the held service is an instance of, without initializing it if it has been
+     * {@link ServiceRegistry#registerLazy registered lazily}: the class of the service itself,
+     * or the class it was registered for if it is not initialized yet.
+     *
+     * @return service type
+     * @since v1.2.1
+     */
+    public @NotNull Class<?> serviceType() {
+        return serviceType;
+    }
+
+    /**
+     * Returns whether the held service has been created. This is always the case, except for
+     * services {@link ServiceRegistry#registerLazy registered lazily} which nobody called
+     * {@link #get()} on yet.
+     *
+     * @return boolean value
+     * @since v1.2.1
+     */
+    public boolean isInitialized() {
+        return service != null;
+    }
+
+    /**
+     * Returns the held service. If it has been
+     * {@link ServiceRegistry#registerLazy registered lazily}, the first call creates it. If
+     * creating it fails, the error is thrown and the next call tries again.
      *
      * @return service
      */
     @Override
     public @NotNull T get() {
-        return service;
+        T current = service;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (service == null) {
+                service = Objects.requireNonNull(supplier.get(),
+                        () -> "Lazy service of " + registrarName + " supplied null"
+                );
+                supplier = null;
+            }
+            return service;
+        }
+    }
+
+    // whether this holds the specified object, without initializing it
+    boolean holds(@NotNull Object object) {
+        T current = service;
+        if (current != null) {
+            return Objects.equals(current, object);
+        }
+        synchronized (this) {
+            return service == null ? supplier == object : Objects.equals(service, object);
+        }
     }
 
     @Override
     public String toString() {
-        return "Service{" + "registrarName='" + registrarName + '\'' + ", priority=" + priority + ", service=" + service + '}';
+        T current = service;
+        return "Service{" + "registrarName='" + registrarName + '\'' + ", priority=" + priority + ", service=" + (current == null
+                ? "<not initialized " + serviceType.getName() + ">"
+                : current) + '}';
     }
 
     /**
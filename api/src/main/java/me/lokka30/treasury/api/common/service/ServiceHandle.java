@@ -0,0 +1,98 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.service;
+
+import java.util.Objects;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a live view of the primary service registered for a class, the one
+ * {@link ServiceRegistry#serviceFor(Class)} would return. The {@link ServiceRegistry} keeps it
+ * up to date as services get registered and unregistered, so there is no need to look the
+ * service up again or to listen for
+ * {@link me.lokka30.treasury.api.common.service.event.ServiceRegisteredEvent service events}.
+ * Reading it is as cheap as reading a field, so it is fine to do on every call.
+ *
+ * <p>Examples:
+ * <pre>
+ * private final ServiceHandle&#60;EconomyProvider&#62; economy =
+ *   ServiceRegistry.INSTANCE.handleFor(EconomyProvider.class);
+ *
+ * public void doSomething() {
+ *   EconomyProvider provider = economy.get();
+ *   if (provider == null) {
+ *     // no economy provider registered right now
+ *     return;
+ *   }
+ *   // use the provider
+ * }
+ * </pre>
+ *
+ * @param <T> service type
+ * @see ServiceRegistry#handleFor(Class)
+ * @since v1.2.1
+ */
+public final class ServiceHandle<T> {
+
+    private final Class<T> serviceClass;
+    private volatile Service<T> current;
+
+    ServiceHandle(@NotNull Class<T> serviceClass) {
+        this.serviceClass = Objects.requireNonNull(serviceClass, "serviceClass");
+    }
+
+    /**
+     * Returns the class of the service this handle tracks.
+     *
+     * @return service class
+     */
+    @NotNull
+    public Class<T> serviceClass() {
+        return serviceClass;
+    }
+
+    /**
+     * Returns the primary service currently registered, if any.
+     *
+     * @return service or an empty optional if not present
+     */
+    @NotNull
+    public Optional<Service<T>> service() {
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * Returns what the primary service currently registered holds, e.g. the
+     * {@link me.lokka30.treasury.api.economy.EconomyProvider EconomyProvider}.
+     *
+     * @return held service, or null if none is registered
+     */
+    @Nullable
+    public T get() {
+        Service<T> service = current;
+        return service == null ? null : service.get();
+    }
+
+    /**
+     * Returns whether a service is currently registered.
+     *
+     * @return boolean value
+     */
+    public boolean isPresent() {
+        return current != null;
+    }
+
+    void set(@Nullable Service<T> service) {
+        this.current = service;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceHandle{" + "serviceClass=" + serviceClass + ", current=" + current + '}';
+    }
+
+}
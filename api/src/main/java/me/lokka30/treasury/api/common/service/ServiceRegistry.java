@@ -5,20 +5,25 @@
 package me.lokka30.treasury.api.common.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import me.lokka30.treasury.api.common.event.EventBus;
 import me.lokka30.treasury.api.common.service.event.ServiceRegisteredEvent;
 import me.lokka30.treasury.api.common.service.event.ServiceUnregisteredEvent;
+import me.lokka30.treasury.api.common.service.event.ServicesChangedEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents the place where {@link Service services}
@@ -33,7 +38,10 @@ import org.jetbrains.annotations.NotNull;
 public enum ServiceRegistry {
     INSTANCE;
 
-    private Map<Class<?>, Set<Service<?>>> servicesMap = new ConcurrentHashMap<>();
+    // each class maps to an immutable snapshot of its registrations, replaced as a whole on
+    // every change so lookups never see a set being modified
+    private final Map<Class<?>, Registrations> servicesMap = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ServiceHandle<?>> handles = new ConcurrentHashMap<>();
 
     /**
      * Register a provider of a service.
@@ -55,43 +63,112 @@ public enum ServiceRegistry {
         Objects.requireNonNull(registrar, "registrar");
         Objects.requireNonNull(priority, "priority");
         Service<T> serviceObj = new Service<>(registrar, priority, service);
-        servicesMap.computeIfAbsent(clazz, k -> new TreeSet<>()).add(serviceObj);
-        EventBus.INSTANCE.fire(new ServiceRegisteredEvent(serviceObj));
+        servicesMap.compute(clazz,
+                (k, registrations) -> publish(k, Registrations.with(registrations, serviceObj))
+        );
+        fireChanged(Collections.singletonList(serviceObj), Collections.emptyList());
     }
 
     /**
-     * Unregister all services from a particular registrar.
+     * Register a provider of a service, which gets created only once it is needed: the first
+     * time someone calls {@link Service#get()} on it, e.g. through {@link ServiceHandle#get()}.
+     * This lets plugins register their services early without paying for their setup, such as
+     * opening connection pools, if nobody ends up using them. The {@code supplier} is called at
+     * most once, unless it throws, and never by several threads at the same time. Whether it has
+     * been called yet can be checked with {@link Service#isInitialized()}.
+     * <p>
+     * The service can be {@link #unregister(Class, Object) unregistered} either with the
+     * {@code supplier}, or with the object it supplied.
      *
-     * @param registrar the registrar
+     * @param clazz     service class
+     * @param supplier  creates the service
+     * @param registrar who registers this provider
+     * @param priority  priority of the service
+     * @param <T>       provider
+     * @since v1.2.1
      */
-    public void unregisterAll(@NotNull String registrar) {
+    public <T> void registerLazy(
+            @NotNull Class<T> clazz,
+            @NotNull Supplier<? extends T> supplier,
+            @NotNull String registrar,
+            @NotNull ServicePriority priority
+    ) {
+        Objects.requireNonNull(clazz, "clazz");
+        Objects.requireNonNull(supplier, "supplier");
         Objects.requireNonNull(registrar, "registrar");
+        Objects.requireNonNull(priority, "priority");
+        Service<T> serviceObj = new Service<>(registrar, priority, clazz, supplier);
+        servicesMap.compute(clazz,
+                (k, registrations) -> publish(k, Registrations.with(registrations, serviceObj))
+        );
+        fireChanged(Collections.singletonList(serviceObj), Collections.emptyList());
+    }
+
+    /**
+     * Applies several registrations and unregistrations at once. The {@link ServiceTransaction}
+     * given to {@code transaction} collects them, and they are applied when it returns: all the
+     * changes to the services of one class become visible at the same time, so
+     * {@link #serviceFor(Class)} and {@link ServiceHandle service handles} never see some of them
+     * without the others. If {@code transaction} throws, nothing is applied.
+     * <p>
+     * A single {@link ServicesChangedEvent} is then called listing the net changes, followed by
+     * a {@link ServiceRegisteredEvent} or {@link ServiceUnregisteredEvent} for each of them.
+     *
+     * <p>Examples:
+     * <pre>
+     * ServiceRegistry.INSTANCE.transaction(tx -&#62; tx
+     *   .unregister(EconomyProvider.class, provider)
+     *   .registerService(EconomyProvider.class, provider, "MyPlugin", ServicePriority.HIGH)
+     * );
+     * </pre>
+     *
+     * @param transaction the changes to apply
+     * @since v1.2.1
+     */
+    public void transaction(@NotNull Consumer<@NotNull ServiceTransaction> transaction) {
+        Objects.requireNonNull(transaction, "transaction");
+        ServiceTransaction tx = new ServiceTransaction();
+        transaction.accept(tx);
+
+        List<Service<?>> added = new ArrayList<>();
         List<Service<?>> removed = new ArrayList<>();
-        Iterator<Map.Entry<Class<?>, Set<Service<?>>>> iterator = servicesMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Class<?>, Set<Service<?>>> entry = iterator.next();
-            entry.getValue().removeIf(service -> {
-                if (service.registrarName().equalsIgnoreCase(registrar)) {
-                    removed.add(service);
-                    return true;
+        for (Map.Entry<Class<?>, List<UnaryOperator<Registrations>>> entry : tx.close().entrySet()) {
+            servicesMap.compute(entry.getKey(), (k, before) -> {
+                Registrations after = before;
+                for (UnaryOperator<Registrations> change : entry.getValue()) {
+                    after = change.apply(after);
                 }
-                return false;
+                Registrations.diff(before, after, removed);
+                Registrations.diff(after, before, added);
+                return after == before ? before : publish(k, after);
             });
-
-            if (entry.getValue().isEmpty()) {
-                iterator.remove();
-            }
         }
+        fireChanged(added, removed);
+    }
 
-        if (!removed.isEmpty()) {
-            while (!removed.isEmpty()) {
-                EventBus.INSTANCE.fire(new ServiceUnregisteredEvent(removed.remove(0)));
-            }
+    /**
+     * Unregister all services from a particular registrar.
+     *
+     * @param registrar the registrar
+     */
+    public void unregisterAll(@NotNull String registrar) {
+        Objects.requireNonNull(registrar, "registrar");
+        List<Service<?>> removed = new ArrayList<>();
+        for (Class<?> clazz : servicesMap.keySet()) {
+            servicesMap.computeIfPresent(clazz, (k, registrations) -> publish(k,
+                    registrations.without(
+                            service -> service.registrarName().equalsIgnoreCase(registrar),
+                            removed
+                    )
+            ));
         }
+
+        fireChanged(Collections.emptyList(), removed);
     }
 
     /**
-     * Unregister a particular service.
+     * Unregister a particular service. Services {@link #registerLazy registered lazily} can be
+     * unregistered with their supplier too.
      *
      * @param clazz   service class
      * @param service service
@@ -101,29 +178,33 @@ public enum ServiceRegistry {
         Objects.requireNonNull(service, "service");
 
         List<Service<?>> removed = new ArrayList<>();
-        Iterator<Map.Entry<Class<?>, Set<Service<?>>>> iterator = servicesMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Class<?>, Set<Service<?>>> entry = iterator.next();
-            if (entry.getKey() != clazz) {
-                continue;
-            }
+        servicesMap.computeIfPresent(clazz, (k, registrations) -> publish(k,
+                registrations.without(s -> s.holds(service), removed)
+        ));
 
-            entry.getValue().removeIf(s -> {
-                if (Objects.equals(s.get(), service)) {
-                    removed.add(s);
-                    return true;
-                }
-                return false;
-            });
-            if (entry.getValue().isEmpty()) {
-                iterator.remove();
-            }
+        fireChanged(Collections.emptyList(), removed);
+    }
+
+    // Runs within the compute of the class, so handles see the changes in the order they are made.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Registrations publish(Class<?> clazz, Registrations registrations) {
+        ServiceHandle handle = handles.get(clazz);
+        if (handle != null) {
+            handle.set(registrations == null ? null : registrations.primary.get());
         }
+        return registrations;
+    }
 
-        if (!removed.isEmpty()) {
-            while (!removed.isEmpty()) {
-                EventBus.INSTANCE.fire(new ServiceUnregisteredEvent(removed.remove(0)));
-            }
+    private void fireChanged(List<Service<?>> added, List<Service<?>> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        EventBus.INSTANCE.fire(new ServicesChangedEvent(added, removed));
+        for (Service<?> service : removed) {
+            EventBus.INSTANCE.fire(new ServiceUnregisteredEvent(service));
+        }
+        for (Service<?> service : added) {
+            EventBus.INSTANCE.fire(new ServiceRegisteredEvent(service));
         }
     }
 
@@ -139,20 +220,80 @@ public enum ServiceRegistry {
     }
 
     /**
-     * Queries for a service with the specified {@link Class}.
+     * Queries for a service with the specified {@link Class}. If there are multiple, the one
+     * with the highest {@link ServicePriority} is returned, and out of these the one registered
+     * first.
      *
      * @param clazz the class to search a service for
      * @param <T>   service type
      * @return service or an empty optional if not present
      */
+    @SuppressWarnings("unchecked")
     public <T> Optional<Service<T>> serviceFor(@NotNull Class<T> clazz) {
         Objects.requireNonNull(clazz, "clazz");
 
-        Set<Service<?>> services = servicesMap.get(clazz);
+        Registrations registrations = servicesMap.get(clazz);
 
-        return services == null || services.isEmpty()
+        return registrations == null
                 ? Optional.empty()
-                : services.stream().findFirst().map(s -> (Service<T>) s);
+                : (Optional<Service<T>>) (Optional<?>) registrations.primary;
+    }
+
+    /**
+     * Returns a {@link ServiceHandle} which always holds the service
+     * {@link #serviceFor(Class)} would return for the specified {@link Class}. The same handle is
+     * returned on every call with the same class.
+     *
+     * @param clazz the class to get a handle for
+     * @param <T>   service type
+     * @return service handle
+     * @since v1.2.1
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public <T> ServiceHandle<T> handleFor(@NotNull Class<T> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        ServiceHandle<T> handle = (ServiceHandle<T>) handles.get(clazz);
+        if (handle != null) {
+            return handle;
+        }
+        // create it under the lock of the class, so it is filled in before anyone sees it and no
+        // change made meanwhile gets lost
+        servicesMap.compute(clazz, (k, registrations) -> {
+            if (!handles.containsKey(k)) {
+                ServiceHandle<T> created = new ServiceHandle<>(clazz);
+                created.set(registrations == null
+                        ? null
+                        : (Service<T>) registrations.primary.get());
+                handles.put(k, created);
+            }
+            return registrations;
+        });
+        return (ServiceHandle<T>) handles.get(clazz);
+    }
+
+    /**
+     * Returns all the services found with the provided {@link Class}, ordered the way
+     * {@link #serviceFor(Class)} picks them: by {@link ServicePriority}, and services of the same
+     * priority in the order they were registered. The list is an unmodifiable snapshot, which
+     * does not change when services are registered or unregistered later.
+     *
+     * @param clazz class to find the services of
+     * @param <T>   service type
+     * @return services, the primary first
+     * @since v1.2.1
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public <T> List<Service<T>> servicesFor(@NotNull Class<T> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        Registrations registrations = servicesMap.get(clazz);
+
+        return registrations == null
+                ? Collections.emptyList()
+                : (List<Service<T>>) (List<?>) registrations.ordered;
     }
 
     /**
@@ -163,21 +304,96 @@ public enum ServiceRegistry {
      * @param <T>   service type
      * @return services
      */
+    @SuppressWarnings("unchecked")
     public <T> Set<Service<T>> allServicesFor(@NotNull Class<T> clazz) {
         Objects.requireNonNull(clazz, "clazz");
 
-        Set<Service<?>> services = servicesMap.get(clazz);
-        if (services == null) {
+        Registrations registrations = servicesMap.get(clazz);
+        if (registrations == null) {
             return Collections.emptySet();
         }
 
         Set<Service<T>> ret = new HashSet<>();
-        for (Service<?> service : services) {
+        for (Service<?> service : registrations.services) {
             ret.add((Service<T>) service);
         }
 
         return ret;
     }
 
+    // Never empty: a class without services has no Registrations at all.
+    static final class Registrations {
+
+        // sorted by priority, services of the same priority in registration order
+        final Service<?>[] services;
+        final Optional<Service<?>> primary;
+        final List<Service<?>> ordered;
+
+        Registrations(Service<?>[] services) {
+            this.services = services;
+            this.primary = Optional.of(services[0]);
+            this.ordered = Collections.unmodifiableList(Arrays.asList(services));
+        }
+
+        static Registrations with(@Nullable Registrations registrations, Service<?> service) {
+            return registrations == null
+                    ? new Registrations(new Service<?>[]{service})
+                    : registrations.with(service);
+        }
+
+        // adds what the first has and the second has not to the list
+        static void diff(
+                @Nullable Registrations registrations,
+                @Nullable Registrations other,
+                List<Service<?>> into
+        ) {
+            if (registrations == null || registrations == other) {
+                return;
+            }
+            for (Service<?> service : registrations.services) {
+                if (other == null || !other.contains(service)) {
+                    into.add(service);
+                }
+            }
+        }
+
+        boolean contains(Service<?> service) {
+            for (Service<?> registered : services) {
+                if (registered == service) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Registrations with(Service<?> service) {
+            int index = services.length;
+            while (index > 0 && services[index - 1].compareTo(service) > 0) {
+                index--;
+            }
+            Service<?>[] copy = new Service<?>[services.length + 1];
+            System.arraycopy(services, 0, copy, 0, index);
+            copy[index] = service;
+            System.arraycopy(services, index, copy, index + 1, services.length - index);
+            return new Registrations(copy);
+        }
+
+        // returns null, which removes the mapping, once nothing is left
+        Registrations without(Predicate<Service<?>> filter, List<Service<?>> removed) {
+            List<Service<?>> kept = new ArrayList<>(services.length);
+            for (Service<?> service : services) {
+                if (filter.test(service)) {
+                    removed.add(service);
+                } else {
+                    kept.add(service);
+                }
+            }
+            if (kept.size() == services.length) {
+                return this;
+            }
+            return kept.isEmpty() ? null : new Registrations(kept.toArray(new Service<?>[0]));
+        }
+
+    }
 
 }
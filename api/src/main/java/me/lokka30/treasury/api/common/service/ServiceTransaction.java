@@ -0,0 +1,122 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a set of service registrations and unregistrations, which the
+ * {@link ServiceRegistry} applies all at once when the
+ * {@link ServiceRegistry#transaction(java.util.function.Consumer) transaction} ends. Nothing
+ * is applied before, so lookups never see a half-applied transaction.
+ *
+ * @see ServiceRegistry#transaction(java.util.function.Consumer)
+ * @since v1.2.1
+ */
+public final class ServiceTransaction {
+
+    // the changes to apply on the registrations of each class, in the order they were requested
+    private final Map<Class<?>, List<UnaryOperator<ServiceRegistry.Registrations>>> changes = new LinkedHashMap<>();
+    private boolean closed;
+
+    ServiceTransaction() {
+    }
+
+    /**
+     * Registers a provider of a service once the transaction ends.
+     *
+     * @param clazz     service class
+     * @param service   service to register
+     * @param registrar who registers this provider
+     * @param priority  priority of the service
+     * @param <T>       provider
+     * @return this transaction
+     */
+    @NotNull
+    public <T> ServiceTransaction registerService(
+            @NotNull Class<T> clazz,
+            @NotNull T service,
+            @NotNull String registrar,
+            @NotNull ServicePriority priority
+    ) {
+        Objects.requireNonNull(clazz, "clazz");
+        Objects.requireNonNull(service, "service");
+        Objects.requireNonNull(registrar, "registrar");
+        Objects.requireNonNull(priority, "priority");
+        Service<T> serviceObj = new Service<>(registrar, priority, service);
+        return change(clazz, registrations -> ServiceRegistry.Registrations.with(registrations,
+                serviceObj
+        ));
+    }
+
+    /**
+     * Registers a provider of a service, which gets created only once it is needed, once the
+     * transaction ends.
+     *
+     * @param clazz     service class
+     * @param supplier  creates the service
+     * @param registrar who registers this provider
+     * @param priority  priority of the service
+     * @param <T>       provider
+     * @return this transaction
+     * @see ServiceRegistry#registerLazy(Class, Supplier, String, ServicePriority)
+     */
+    @NotNull
+    public <T> ServiceTransaction registerLazy(
+            @NotNull Class<T> clazz,
+            @NotNull Supplier<? extends T> supplier,
+            @NotNull String registrar,
+            @NotNull ServicePriority priority
+    ) {
+        Objects.requireNonNull(clazz, "clazz");
+        Objects.requireNonNull(supplier, "supplier");
+        Objects.requireNonNull(registrar, "registrar");
+        Objects.requireNonNull(priority, "priority");
+        Service<T> serviceObj = new Service<>(registrar, priority, clazz, supplier);
+        return change(clazz, registrations -> ServiceRegistry.Registrations.with(registrations,
+                serviceObj
+        ));
+    }
+
+    /**
+     * Unregisters a particular service once the transaction ends. This includes services
+     * registered earlier in the same transaction.
+     *
+     * @param clazz   service class
+     * @param service service
+     * @return this transaction
+     */
+    @NotNull
+    public ServiceTransaction unregister(@NotNull Class<?> clazz, @NotNull Object service) {
+        Objects.requireNonNull(clazz, "clazz");
+        Objects.requireNonNull(service, "service");
+        return change(clazz, registrations -> registrations == null
+                ? null
+                : registrations.without(s -> s.holds(service), new ArrayList<>()));
+    }
+
+    private ServiceTransaction change(
+            Class<?> clazz, UnaryOperator<ServiceRegistry.Registrations> change
+    ) {
+        if (closed) {
+            throw new IllegalStateException("ServiceTransaction already ended");
+        }
+        changes.computeIfAbsent(clazz, k -> new ArrayList<>()).add(change);
+        return this;
+    }
+
+    Map<Class<?>, List<UnaryOperator<ServiceRegistry.Registrations>>> close() {
+        closed = true;
+        return changes;
+    }
+
+}
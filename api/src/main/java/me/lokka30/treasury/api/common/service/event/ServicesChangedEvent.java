@@ -0,0 +1,57 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.service.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import me.lokka30.treasury.api.common.service.Service;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An event, called once for every change to the registered {@link Service services}, after it
+ * has been applied. A change is either a single registration or unregistration, or all the
+ * changes of a {@link me.lokka30.treasury.api.common.service.ServiceRegistry#transaction
+ * transaction}, in which case only the net changes are listed: a service registered and
+ * unregistered again within the same transaction is not.
+ * <p>
+ * The {@link ServiceRegisteredEvent} and {@link ServiceUnregisteredEvent} are still called for
+ * every service listed here.
+ *
+ * @since v1.2.1
+ */
+public class ServicesChangedEvent {
+
+    private final List<Service<?>> added;
+    private final List<Service<?>> removed;
+
+    public ServicesChangedEvent(
+            @NotNull List<Service<?>> added, @NotNull List<Service<?>> removed
+    ) {
+        this.added = Collections.unmodifiableList(Objects.requireNonNull(added, "added"));
+        this.removed = Collections.unmodifiableList(Objects.requireNonNull(removed, "removed"));
+    }
+
+    /**
+     * Returns the {@link Service services} which have been registered.
+     *
+     * @return services added
+     */
+    @NotNull
+    public List<Service<?>> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the {@link Service services} which have been unregistered.
+     *
+     * @return services removed
+     */
+    @NotNull
+    public List<Service<?>> getRemoved() {
+        return removed;
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.response.EconomyException;
+import me.lokka30.treasury.api.economy.response.EconomyFailureReason;
+import me.lokka30.treasury.api.economy.response.EconomySubscriber;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The default {@link EconomyProvider#retrieveBalances(Collection, Currency, EconomySubscriber)}:
+ * a few workers, each retrieving one balance at a time until none are left. Like the per
+ * player lookups it replaces, it checks {@link EconomyProvider#hasPlayerAccount} first, as
+ * providers differ in how {@link EconomyProvider#retrievePlayerAccount} treats a player
+ * without an account.
+ *
+ * <p>A player whose lookup fails is left out, so one broken account does not fail the balances
+ * of everyone else. Only when every lookup fails does the request fail, with the last error.
+ */
+final class BalanceFanOut {
+
+    static final String CONCURRENCY_PROPERTY = "treasury.economy.balanceConcurrency";
+    static final int CONCURRENCY = Math.max(1, Integer.getInteger(CONCURRENCY_PROPERTY, 32));
+
+    private final EconomyProvider provider;
+    private final Currency currency;
+    private final UUID[] playerIds;
+    private final EconomySubscriber<Map<UUID, BigDecimal>> subscription;
+    private final Map<UUID, BigDecimal> balances = new ConcurrentHashMap<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile EconomyException lastFailure;
+
+    BalanceFanOut(
+            @NotNull EconomyProvider provider,
+            @NotNull Collection<UUID> playerIds,
+            @NotNull Currency currency,
+            @NotNull EconomySubscriber<Map<UUID, BigDecimal>> subscription
+    ) {
+        this.provider = provider;
+        this.currency = currency;
+        this.playerIds = playerIds.toArray(new UUID[0]);
+        this.subscription = subscription;
+    }
+
+    void start(int concurrency) {
+        int count = Math.min(concurrency, playerIds.length);
+        if (count == 0) {
+            subscription.succeed(balances);
+            return;
+        }
+        workers.set(count);
+        for (int i = 0; i < count; i++) {
+            work();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            int index = cursor.getAndIncrement();
+            if (index >= playerIds.length) {
+                if (workers.decrementAndGet() == 0) {
+                    complete();
+                }
+                return;
+            }
+            // 0 while retrieving, 1 once retrieved within this loop, 2 once the loop has left it
+            // to be carried on by whoever completes the retrieval
+            AtomicInteger state = new AtomicInteger();
+            retrieve(playerIds[index], () -> {
+                if (!state.compareAndSet(0, 1)) {
+                    work();
+                }
+            });
+            if (state.compareAndSet(0, 2)) {
+                return;
+            }
+        }
+    }
+
+    private void retrieve(UUID playerId, Runnable then) {
+        try {
+            provider.hasPlayerAccount(playerId, new EconomySubscriber<Boolean>() {
+                @Override
+                public void succeed(@NotNull Boolean hasAccount) {
+                    if (hasAccount) {
+                        retrieveAccount(playerId, then);
+                    } else {
+                        // players without an account are left out
+                        then.run();
+                    }
+                }
+
+                @Override
+                public void fail(@NotNull EconomyException exception) {
+                    failed(exception);
+                    then.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            failed(new EconomyException(EconomyFailureReason.OTHER_FAILURE, e));
+            then.run();
+        }
+    }
+
+    private void retrieveAccount(UUID playerId, Runnable then) {
+        try {
+            provider.retrievePlayerAccount(playerId, new EconomySubscriber<PlayerAccount>() {
+                @Override
+                public void succeed(@NotNull PlayerAccount account) {
+                    retrieveBalance(playerId, account, then);
+                }
+
+                @Override
+                public void fail(@NotNull EconomyException exception) {
+                    failed(exception);
+                    then.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            failed(new EconomyException(EconomyFailureReason.OTHER_FAILURE, e));
+            then.run();
+        }
+    }
+
+    private void retrieveBalance(UUID playerId, PlayerAccount account, Runnable then) {
+        try {
+            account.retrieveBalance(currency, new EconomySubscriber<BigDecimal>() {
+                @Override
+                public void succeed(@NotNull BigDecimal balance) {
+                    balances.put(playerId, balance);
+                    then.run();
+                }
+
+                @Override
+                public void fail(@NotNull EconomyException exception) {
+                    failed(exception);
+                    then.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            failed(new EconomyException(EconomyFailureReason.OTHER_FAILURE, e));
+            then.run();
+        }
+    }
+
+    private void failed(EconomyException exception) {
+        lastFailure = exception;
+        failures.incrementAndGet();
+    }
+
+    private void complete() {
+        if (failures.get() == playerIds.length) {
+            subscription.fail(lastFailure);
+        } else {
+            subscription.succeed(balances);
+        }
+    }
+
+}
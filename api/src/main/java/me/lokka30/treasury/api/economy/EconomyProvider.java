@@ -4,8 +4,10 @@
 
 package me.lokka30.treasury.api.economy;
 
+import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -333,6 +335,34 @@ public interface EconomyProvider {
         });
     }
 
+    /**
+     * Request the balances of many players at once, in one {@link Currency}. Players without a
+     * {@link PlayerAccount} are left out of the resulting map, and so are players whose balance
+     * could not be retrieved: one failing account does not fail the request, which only fails if
+     * looking up every player failed.
+     *
+     * <p>By default, this checks whether each player has an account, then retrieves the account
+     * and its balance, with up to 32 players in progress at the same time (the {@code treasury.economy.balanceConcurrency}
+     * system property changes this). Economy Providers which can do better, e.g. with a single
+     * database query, should override it and support
+     * {@link OptionalEconomyApiFeature#BULK_BALANCES}.
+     *
+     * @param playerIds    the {@link UUID UUIDs} of the account owners
+     * @param currency     the {@link Currency} of the balances being requested
+     * @param subscription the {@link EconomySubscriber} accepting the balances by player
+     * @since v1.2.1
+     */
+    default void retrieveBalances(
+            @NotNull Collection<UUID> playerIds,
+            @NotNull Currency currency,
+            @NotNull EconomySubscriber<Map<UUID, BigDecimal>> subscription
+    ) {
+        Objects.requireNonNull(playerIds, "playerIds");
+        Objects.requireNonNull(currency, "currency");
+        Objects.requireNonNull(subscription, "subscription");
+        new BalanceFanOut(this, playerIds, currency, subscription).start(BalanceFanOut.CONCURRENCY);
+    }
+
     /**
      * Get the primary or main {@link Currency} of the economy.
      *
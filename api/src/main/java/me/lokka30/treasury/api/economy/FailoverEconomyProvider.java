@@ -0,0 +1,791 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.misc.OptionalEconomyApiFeature;
+import me.lokka30.treasury.api.economy.response.EconomyException;
+import me.lokka30.treasury.api.economy.response.EconomyFailureReason;
+import me.lokka30.treasury.api.economy.response.EconomySubscriber;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link EconomyProvider} passing every request on to the economy providers registered in
+ * the {@link ServiceRegistry}, which keeps away from those which are failing or too slow to
+ * answer. Use it in place of the primary provider when a stalled economy should not stall you:
+ *
+ * <pre>
+ * EconomyProvider economy = FailoverEconomyProvider.builder()
+ *   .withCallTimeout(2, TimeUnit.SECONDS)
+ *   .build();
+ * </pre>
+ *
+ * <p>Each registered provider gets a circuit, which tracks the outcome of the last requests it
+ * got. A request fails when the provider throws, fails it with
+ * {@link EconomyFailureReason#OTHER_FAILURE}, or does not answer within the call timeout; a
+ * request answered after the slow call threshold counts as failed too. Other failures, such as
+ * {@link EconomyFailureReason#ACCOUNT_NOT_FOUND}, are answers and are passed on as they are.
+ * Once enough of the recent requests failed the circuit opens, and the provider gets no
+ * requests until the open duration has passed. Then a single request probes it: if it succeeds
+ * the circuit closes again, otherwise it stays open for another open duration.
+ *
+ * <p>Requests which only read, like {@link #retrievePlayerAccount(UUID, EconomySubscriber)},
+ * go to the first provider, in {@link ServiceRegistry#servicesFor(Class) priority order}, whose
+ * circuit is not open. When a provider fails one, it is retried on the next provider. If none is
+ * left, the last answer seen for the same request is given, if any. Requests which create
+ * something only ever go to the primary provider, so data does not end up split between
+ * providers; while its circuit is open they fail right away, and timing out does not fail them
+ * but only counts against the circuit.
+ *
+ * <p>{@link #retrieveBalances(Collection, Currency, EconomySubscriber)} can take as long as the
+ * amount of players asks for, so the call timeout and slow call threshold don't apply to it: it
+ * only goes to providers whose circuit is closed, and only counts against one when it fails.
+ *
+ * <p>This only covers the requests made to the provider itself. The {@link Account accounts} it
+ * returns are the ones of the provider which answered.
+ *
+ * @since v1.2.1
+ */
+public final class FailoverEconomyProvider implements EconomyProvider {
+
+    /**
+     * Represents the state of the circuit of an economy provider.
+     *
+     * @since v1.2.1
+     */
+    public enum CircuitState {
+
+        /**
+         * The provider is healthy and gets requests.
+         */
+        CLOSED,
+
+        /**
+         * Too many requests to the provider have failed recently. It gets no requests.
+         */
+        OPEN,
+
+        /**
+         * The provider was unhealthy, and one request is probing whether it recovered.
+         */
+        HALF_OPEN
+
+    }
+
+    /**
+     * Creates a new {@link Builder} of a {@link FailoverEconomyProvider}.
+     *
+     * @return builder
+     */
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static volatile ScheduledThreadPoolExecutor timeouts;
+
+    private final long callTimeoutNanos;
+    private final long slowCallNanos;
+    private final int failureRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openNanos;
+    // the last answer of each read request, or null if not kept
+    private final Map<String, Object> snapshots;
+
+    private final Map<Service<EconomyProvider>, Circuit> circuits = new ConcurrentHashMap<>();
+    private volatile List<Service<EconomyProvider>> lastServices = Collections.emptyList();
+
+    private FailoverEconomyProvider(Builder builder) {
+        this.callTimeoutNanos = builder.callTimeoutNanos;
+        this.slowCallNanos = builder.slowCallNanos;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.openNanos = builder.openNanos;
+        int snapshotCapacity = builder.snapshotCapacity;
+        this.snapshots = snapshotCapacity == 0
+                ? null
+                : Collections.synchronizedMap(new LinkedHashMap<String, Object>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                        return size() > snapshotCapacity;
+                    }
+                });
+    }
+
+    /**
+     * Returns the {@link CircuitState} of the specified economy provider service.
+     *
+     * @param service the service of the economy provider
+     * @return circuit state
+     */
+    @NotNull
+    public CircuitState getCircuitState(@NotNull Service<EconomyProvider> service) {
+        Objects.requireNonNull(service, "service");
+        Circuit circuit = circuits.get(service);
+        return circuit == null ? CircuitState.CLOSED : circuit.state(System.nanoTime());
+    }
+
+    @Override
+    public @NotNull Set<OptionalEconomyApiFeature> getSupportedOptionalEconomyApiFeatures() {
+        return sync("getSupportedOptionalEconomyApiFeatures",
+                EconomyProvider::getSupportedOptionalEconomyApiFeatures
+        );
+    }
+
+    @Override
+    public void hasPlayerAccount(
+            @NotNull UUID accountId, @NotNull EconomySubscriber<Boolean> subscription
+    ) {
+        Objects.requireNonNull(accountId, "accountId");
+        read("hasPlayerAccount:" + accountId,
+                (provider, s) -> provider.hasPlayerAccount(accountId, s),
+                subscription
+        );
+    }
+
+    @Override
+    public void retrievePlayerAccount(
+            @NotNull UUID accountId, @NotNull EconomySubscriber<PlayerAccount> subscription
+    ) {
+        Objects.requireNonNull(accountId, "accountId");
+        read("retrievePlayerAccount:" + accountId,
+                (provider, s) -> provider.retrievePlayerAccount(accountId, s),
+                subscription
+        );
+    }
+
+    @Override
+    public void createPlayerAccount(
+            @NotNull UUID accountId, @NotNull EconomySubscriber<PlayerAccount> subscription
+    ) {
+        Objects.requireNonNull(accountId, "accountId");
+        write((provider, s) -> provider.createPlayerAccount(accountId, s), subscription);
+    }
+
+    @Override
+    public void retrievePlayerAccountIds(@NotNull EconomySubscriber<Collection<UUID>> subscription) {
+        read("retrievePlayerAccountIds", EconomyProvider::retrievePlayerAccountIds, subscription);
+    }
+
+    @Override
+    public void hasAccount(
+            @NotNull String identifier, @NotNull EconomySubscriber<Boolean> subscription
+    ) {
+        Objects.requireNonNull(identifier, "identifier");
+        read("hasAccount:" + identifier,
+                (provider, s) -> provider.hasAccount(identifier, s),
+                subscription
+        );
+    }
+
+    @Override
+    public void retrieveAccount(
+            @NotNull String identifier, @NotNull EconomySubscriber<Account> subscription
+    ) {
+        Objects.requireNonNull(identifier, "identifier");
+        read("retrieveAccount:" + identifier,
+                (provider, s) -> provider.retrieveAccount(identifier, s),
+                subscription
+        );
+    }
+
+    @Override
+    public void createAccount(
+            @Nullable String name,
+            @NotNull String identifier,
+            @NotNull EconomySubscriber<Account> subscription
+    ) {
+        Objects.requireNonNull(identifier, "identifier");
+        write((provider, s) -> provider.createAccount(name, identifier, s), subscription);
+    }
+
+    @Override
+    public void retrieveAccountIds(@NotNull EconomySubscriber<Collection<String>> subscription) {
+        read("retrieveAccountIds", EconomyProvider::retrieveAccountIds, subscription);
+    }
+
+    @Override
+    public void retrieveNonPlayerAccountIds(@NotNull EconomySubscriber<Collection<String>> subscription) {
+        read("retrieveNonPlayerAccountIds",
+                EconomyProvider::retrieveNonPlayerAccountIds,
+                subscription
+        );
+    }
+
+    @Override
+    public void retrieveBalances(
+            @NotNull Collection<UUID> playerIds,
+            @NotNull Currency currency,
+            @NotNull EconomySubscriber<Map<UUID, BigDecimal>> subscription
+    ) {
+        Objects.requireNonNull(playerIds, "playerIds");
+        Objects.requireNonNull(currency, "currency");
+        Objects.requireNonNull(subscription, "subscription");
+        // too big to keep a snapshot of, and takes as long as it takes: only failures count
+        read(services(),
+                0,
+                null,
+                true,
+                (provider, s) -> provider.retrieveBalances(playerIds, currency, s),
+                subscription
+        );
+    }
+
+    @Override
+    public @NotNull Currency getPrimaryCurrency() {
+        return sync("getPrimaryCurrency", EconomyProvider::getPrimaryCurrency);
+    }
+
+    @Override
+    public Optional<Currency> findCurrency(@NotNull String identifier) {
+        Objects.requireNonNull(identifier, "identifier");
+        return sync("findCurrency:" + identifier, provider -> provider.findCurrency(identifier));
+    }
+
+    @Override
+    public Set<Currency> getCurrencies() {
+        return sync("getCurrencies", EconomyProvider::getCurrencies);
+    }
+
+    @Override
+    public void registerCurrency(
+            @NotNull Currency currency, @NotNull EconomySubscriber<Boolean> subscription
+    ) {
+        Objects.requireNonNull(currency, "currency");
+        write((provider, s) -> provider.registerCurrency(currency, s), subscription);
+    }
+
+    private List<Service<EconomyProvider>> services() {
+        List<Service<EconomyProvider>> services = ServiceRegistry.INSTANCE.servicesFor(
+                EconomyProvider.class);
+        if (services != lastServices) {
+            // the registrations changed, forget about the providers which are gone
+            lastServices = services;
+            circuits.keySet().retainAll(services);
+        }
+        return services;
+    }
+
+    @Nullable
+    private EconomyProvider providerOf(Service<EconomyProvider> service) {
+        if (FailoverEconomyProvider.class.isAssignableFrom(service.serviceType())) {
+            return null;
+        }
+        EconomyProvider provider = service.get();
+        return provider instanceof FailoverEconomyProvider ? null : provider;
+    }
+
+    private Circuit circuitOf(Service<EconomyProvider> service) {
+        return circuits.computeIfAbsent(service, k -> new Circuit());
+    }
+
+    private <T> void read(
+            @NotNull String snapshotKey,
+            @NotNull BiConsumer<EconomyProvider, EconomySubscriber<T>> request,
+            @NotNull EconomySubscriber<T> subscription
+    ) {
+        Objects.requireNonNull(subscription, "subscription");
+        read(services(), 0, snapshotKey, false, request, subscription);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void read(
+            List<Service<EconomyProvider>> services,
+            int from,
+            @Nullable String snapshotKey,
+            boolean bulk,
+            BiConsumer<EconomyProvider, EconomySubscriber<T>> request,
+            EconomySubscriber<T> subscription
+    ) {
+        for (int i = from; i < services.size(); i++) {
+            Service<EconomyProvider> service = services.get(i);
+            EconomyProvider provider = providerOf(service);
+            if (provider == null) {
+                continue;
+            }
+            Circuit circuit = circuitOf(service);
+            // a bulk request has no timeout, so it can't be what probes a provider
+            Permit permit = circuit.tryAcquire(!bulk);
+            if (permit == null) {
+                continue;
+            }
+            int next = i + 1;
+            call(provider, circuit, permit, !bulk, request, new EconomySubscriber<T>() {
+                @Override
+                public void succeed(@NotNull T value) {
+                    if (snapshots != null && snapshotKey != null) {
+                        snapshots.put(snapshotKey, value);
+                    }
+                    subscription.succeed(value);
+                }
+
+                @Override
+                public void fail(@NotNull EconomyException exception) {
+                    subscription.fail(exception);
+                }
+            }, () -> read(services, next, snapshotKey, bulk, request, subscription));
+            return;
+        }
+
+        Object snapshot = snapshots == null || snapshotKey == null
+                ? null
+                : snapshots.get(snapshotKey);
+        if (snapshot != null) {
+            subscription.succeed((T) snapshot);
+            return;
+        }
+        subscription.fail(new EconomyException(EconomyFailureReason.OTHER_FAILURE,
+                "No healthy economy provider is available"
+        ));
+    }
+
+    private <T> void write(
+            @NotNull BiConsumer<EconomyProvider, EconomySubscriber<T>> request,
+            @NotNull EconomySubscriber<T> subscription
+    ) {
+        Objects.requireNonNull(subscription, "subscription");
+        for (Service<EconomyProvider> service : services()) {
+            EconomyProvider provider = providerOf(service);
+            if (provider == null) {
+                continue;
+            }
+            Circuit circuit = circuitOf(service);
+            Permit permit = circuit.tryAcquire(true);
+            if (permit == null) {
+                subscription.fail(new EconomyException(EconomyFailureReason.OTHER_FAILURE,
+                        "The economy provider of " + service.registrarName() + " is unavailable"
+                ));
+                return;
+            }
+            call(provider, circuit, permit, true, request, subscription, null);
+            return;
+        }
+        subscription.fail(new EconomyException(EconomyFailureReason.OTHER_FAILURE,
+                "No economy provider is registered"
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T sync(
+            @NotNull String snapshotKey, @NotNull Function<EconomyProvider, T> request
+    ) {
+        RuntimeException error = null;
+        for (Service<EconomyProvider> service : services()) {
+            EconomyProvider provider = providerOf(service);
+            if (provider == null) {
+                continue;
+            }
+            Circuit circuit = circuitOf(service);
+            Permit permit = circuit.tryAcquire(true);
+            if (permit == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                T result = request.apply(provider);
+                circuit.record(permit, System.nanoTime() - start >= slowCallNanos);
+                if (snapshots != null && result != null) {
+                    snapshots.put(snapshotKey, result);
+                }
+                return result;
+            } catch (RuntimeException e) {
+                circuit.record(permit, true);
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+
+        Object snapshot = snapshots == null ? null : snapshots.get(snapshotKey);
+        if (snapshot != null) {
+            return (T) snapshot;
+        }
+        if (error != null) {
+            throw error;
+        }
+        throw new IllegalStateException("No healthy economy provider is available");
+    }
+
+    private <T> void call(
+            EconomyProvider provider,
+            Circuit circuit,
+            Permit permit,
+            boolean timed,
+            BiConsumer<EconomyProvider, EconomySubscriber<T>> request,
+            EconomySubscriber<T> subscription,
+            @Nullable Runnable failover
+    ) {
+        Call<T> call = new Call<>(circuit, permit, timed, subscription, failover);
+        // a probe without a timeout still gives the circuit back once it could have opened
+        // again, or a provider which never answers it would stay half open for good
+        long deadline = call.timesOut() ? callTimeoutNanos : permit == Permit.PROBE ? openNanos : 0;
+        if (deadline > 0) {
+            // before the request, as the provider may not return until it has answered
+            call.timeout = timeouts().schedule(call::timedOut, deadline, TimeUnit.NANOSECONDS);
+        }
+        try {
+            request.accept(provider, call);
+        } catch (RuntimeException e) {
+            call.fail(new EconomyException(EconomyFailureReason.OTHER_FAILURE, e));
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor timeouts() {
+        ScheduledThreadPoolExecutor timeouts = FailoverEconomyProvider.timeouts;
+        if (timeouts != null) {
+            return timeouts;
+        }
+        synchronized (FailoverEconomyProvider.class) {
+            if (FailoverEconomyProvider.timeouts == null) {
+                ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, task -> {
+                    Thread thread = new Thread(task, "Treasury Economy Failover");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                created.setRemoveOnCancelPolicy(true);
+                // let the thread go while nothing is waiting for a provider
+                created.setKeepAliveTime(1, TimeUnit.MINUTES);
+                created.allowCoreThreadTimeOut(true);
+                FailoverEconomyProvider.timeouts = created;
+            }
+            return FailoverEconomyProvider.timeouts;
+        }
+    }
+
+    // A request to one provider. Its outcome counts once towards the circuit, whichever of the
+    // answer and the timeout comes first, and is given once to the subscription. An untimed
+    // request has neither a timeout nor a slow call threshold, only failing counts.
+    private final class Call<T> implements EconomySubscriber<T> {
+
+        private final Circuit circuit;
+        private final Permit permit;
+        private final boolean timed;
+        private final EconomySubscriber<T> subscription;
+        private final Runnable failover;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private final AtomicBoolean delivered = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeout;
+
+        Call(
+                Circuit circuit,
+                Permit permit,
+                boolean timed,
+                EconomySubscriber<T> subscription,
+                @Nullable Runnable failover
+        ) {
+            this.circuit = circuit;
+            this.permit = permit;
+            this.timed = timed;
+            this.subscription = subscription;
+            this.failover = failover;
+        }
+
+        @Override
+        public void succeed(@NotNull T value) {
+            record(false);
+            if (delivered.compareAndSet(false, true)) {
+                subscription.succeed(value);
+            }
+        }
+
+        @Override
+        public void fail(@NotNull EconomyException exception) {
+            boolean unhealthy = exception.getReason() == EconomyFailureReason.OTHER_FAILURE;
+            record(unhealthy);
+            if (!delivered.compareAndSet(false, true)) {
+                return;
+            }
+            if (unhealthy && failover != null) {
+                failover.run();
+            } else {
+                subscription.fail(exception);
+            }
+        }
+
+        boolean timesOut() {
+            return timed && callTimeoutNanos > 0;
+        }
+
+        void timedOut() {
+            if (!record(true)) {
+                return;
+            }
+            // requests which can't be retried elsewhere, or have no timeout and only ran out the
+            // deadline of the probe, keep waiting for their answer
+            if (timesOut() && failover != null && delivered.compareAndSet(false, true)) {
+                failover.run();
+            }
+        }
+
+        private boolean record(boolean failed) {
+            if (!recorded.compareAndSet(false, true)) {
+                return false;
+            }
+            ScheduledFuture<?> timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            boolean slow = timed && System.nanoTime() - start >= slowCallNanos;
+            circuit.record(permit, failed || slow);
+            return true;
+        }
+
+    }
+
+    // What a circuit let a request through as. Only the probe decides how a half open circuit
+    // goes on; answers to requests let through before are too late to tell.
+    private enum Permit {
+        CALL,
+        PROBE
+    }
+
+    private final class Circuit {
+
+        // whether each of the last requests failed, as a ring
+        private final boolean[] outcomes = new boolean[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private CircuitState state = CircuitState.CLOSED;
+        private long openedAt;
+        private boolean probing;
+
+        synchronized CircuitState state(long now) {
+            if (state == CircuitState.OPEN && now - openedAt >= openNanos) {
+                return CircuitState.HALF_OPEN;
+            }
+            return state;
+        }
+
+        // null if the request may not go to the provider, which is always the case for a request
+        // which may not probe while the circuit is not closed
+        @Nullable
+        synchronized Permit tryAcquire(boolean mayProbe) {
+            if (!mayProbe && state != CircuitState.CLOSED) {
+                return null;
+            }
+            switch (state) {
+                case CLOSED:
+                    return Permit.CALL;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        return null;
+                    }
+                    state = CircuitState.HALF_OPEN;
+                    probing = true;
+                    return Permit.PROBE;
+                default:
+                    if (probing) {
+                        return null;
+                    }
+                    probing = true;
+                    return Permit.PROBE;
+            }
+        }
+
+        synchronized void record(@NotNull Permit permit, boolean failed) {
+            if (permit == Permit.PROBE) {
+                probing = false;
+                if (failed) {
+                    open();
+                } else {
+                    close();
+                }
+                return;
+            }
+            if (state != CircuitState.CLOSED) {
+                // the answer to a request made before the circuit opened
+                return;
+            }
+
+            if (calls == outcomes.length) {
+                if (outcomes[next]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            outcomes[next] = failed;
+            if (failed) {
+                failures++;
+            }
+            next = (next + 1) % outcomes.length;
+
+            if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = CircuitState.OPEN;
+            openedAt = System.nanoTime();
+        }
+
+        private void close() {
+            state = CircuitState.CLOSED;
+            next = 0;
+            calls = 0;
+            failures = 0;
+        }
+
+    }
+
+    /**
+     * Represents a builder of a {@link FailoverEconomyProvider}.
+     *
+     * @since v1.2.1
+     */
+    public static final class Builder {
+
+        private long callTimeoutNanos = TimeUnit.SECONDS.toNanos(5);
+        private long slowCallNanos = TimeUnit.SECONDS.toNanos(2);
+        private int failureRateThreshold = 50;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private long openNanos = TimeUnit.SECONDS.toNanos(30);
+        private int snapshotCapacity = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how long a provider may take to answer a request before it is retried on the next
+         * provider. {@code 0} waits forever, except for the request probing whether a provider
+         * recovered: it counts as failed once the {@link #withOpenDuration open duration} passed
+         * without an answer. Defaults to 5 seconds.
+         *
+         * @param timeout timeout
+         * @param unit    unit of the timeout
+         * @return this builder
+         */
+        @NotNull
+        public Builder withCallTimeout(long timeout, @NotNull TimeUnit unit) {
+            Objects.requireNonNull(unit, "unit");
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout must not be negative");
+            }
+            this.callTimeoutNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * Sets after how long an answer counts as a failure towards the circuit of the provider,
+         * even though it is used. Defaults to 2 seconds.
+         *
+         * @param threshold threshold
+         * @param unit      unit of the threshold
+         * @return this builder
+         */
+        @NotNull
+        public Builder withSlowCallThreshold(long threshold, @NotNull TimeUnit unit) {
+            Objects.requireNonNull(unit, "unit");
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("threshold must be positive");
+            }
+            this.slowCallNanos = unit.toNanos(threshold);
+            return this;
+        }
+
+        /**
+         * Sets the percentage of failed requests out of the last {@code windowSize} at which the
+         * circuit of a provider opens, as soon as it got at least {@code minimumCalls} of them.
+         * Defaults to 50 percent of the last 20 requests, with at least 10 requests.
+         *
+         * @param failureRateThreshold percentage, from 1 to 100
+         * @param windowSize           number of the last requests to look at
+         * @param minimumCalls         number of requests needed to open the circuit
+         * @return this builder
+         */
+        @NotNull
+        public Builder withFailureRate(int failureRateThreshold, int windowSize, int minimumCalls) {
+            if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+                throw new IllegalArgumentException("failureRateThreshold must be from 1 to 100");
+            }
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("windowSize must be positive");
+            }
+            if (minimumCalls < 1 || minimumCalls > windowSize) {
+                throw new IllegalArgumentException("minimumCalls must be from 1 to windowSize");
+            }
+            this.failureRateThreshold = failureRateThreshold;
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets how long the circuit of a provider stays open before a request probes whether it
+         * recovered. Defaults to 30 seconds.
+         *
+         * @param duration duration
+         * @param unit     unit of the duration
+         * @return this builder
+         */
+        @NotNull
+        public Builder withOpenDuration(long duration, @NotNull TimeUnit unit) {
+            Objects.requireNonNull(unit, "unit");
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration must not be negative");
+            }
+            this.openNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets how many answers to read requests are kept, to be given when no provider is
+         * healthy. {@code 0} keeps none. Defaults to 1024.
+         *
+         * @param capacity number of answers kept
+         * @return this builder
+         */
+        @NotNull
+        public Builder withSnapshotCapacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity must not be negative");
+            }
+            this.snapshotCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Builds the {@link FailoverEconomyProvider}.
+         *
+         * @return failover economy provider
+         */
+        @NotNull
+        public FailoverEconomyProvider build() {
+            return new FailoverEconomyProvider(this);
+        }
+
+    }
+
+}
@@ -4,6 +4,7 @@
 
 package me.lokka30.treasury.api.economy.events;
 
+import java.util.function.Function;
 import me.lokka30.treasury.api.common.event.Cancellable;
 import me.lokka30.treasury.api.economy.account.Account;
 import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
@@ -17,6 +18,30 @@ import org.jetbrains.annotations.NotNull;
  */
 public class AccountTransactionEvent implements Cancellable {
 
+    /**
+     * Keys events by the {@link EconomyTransaction#getCurrencyID() currency} of their
+     * transaction, for use with
+     * {@link me.lokka30.treasury.api.common.event.EventBus.EventSubscriberBuilder#filteredBy(Function,
+     * Object)}.
+     *
+     * @since v1.2.1
+     */
+    public static final Function<AccountTransactionEvent, String> BY_CURRENCY = event -> event
+            .getTransaction()
+            .getCurrencyID();
+
+    /**
+     * Keys events by the {@link Account#getIdentifier() identifier} of their account, for use
+     * with
+     * {@link me.lokka30.treasury.api.common.event.EventBus.EventSubscriberBuilder#filteredBy(Function,
+     * Object)}.
+     *
+     * @since v1.2.1
+     */
+    public static final Function<AccountTransactionEvent, String> BY_ACCOUNT = event -> event
+            .getAccount()
+            .getIdentifier();
+
     @NotNull
     private final EconomyTransaction economyTransaction;
     @NotNull
@@ -42,6 +42,18 @@ public enum OptionalEconomyApiFeature {
      *
      * @since v1.0.0
      */
-    NEGATIVE_BALANCES
+    NEGATIVE_BALANCES,
+
+    /**
+     * Represents that the Economy Provider implements
+     * {@link me.lokka30.treasury.api.economy.EconomyProvider#retrieveBalances(java.util.Collection,
+     * me.lokka30.treasury.api.economy.currency.Currency,
+     * me.lokka30.treasury.api.economy.response.EconomySubscriber) retrieveBalances}
+     * itself, retrieving many balances at once, e.g. with a single database query, instead of
+     * one account after another.
+     *
+     * @since v1.2.1
+     */
+    BULK_BALANCES
 
 }
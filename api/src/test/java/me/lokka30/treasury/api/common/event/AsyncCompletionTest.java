@@ -1,5 +1,7 @@
 package me.lokka30.treasury.api.common.event;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -14,15 +16,23 @@ class AsyncCompletionTest {
     void testAsyncCompletion() {
         EventBus bus = EventBus.INSTANCE;
         LogCatcher log = new LogCatcher();
-
-        bus.subscribe(bus
-                .subscriptionFor(Event.class)
-                .whenCalled((Consumer<Event>) event -> log.log("whenCalled"))
-                .completeSubscription());
+        // fire only hands the event off, nothing orders the subscriber after the caller's next
+        // statement, so the subscriber holds until the caller has logged
+        CountDownLatch fired = new CountDownLatch(1);
+
+        bus.subscribe(bus.subscriptionFor(Event.class).whenCalled((Consumer<Event>) event -> {
+            try {
+                fired.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.log("whenCalled");
+        }).completeSubscription());
 
         bus.fire(new Event()).whenCompleteAsync((event, errors) -> log.log("whenCompleteAsync"));
 
         log.log("direct");
+        fired.countDown();
 
         try {
             // sleep 1 second before checking just to make sure everything has passed
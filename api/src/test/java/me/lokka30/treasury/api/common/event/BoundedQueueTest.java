@@ -0,0 +1,229 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+class BoundedQueueTest {
+
+    static class FailEvent {
+
+    }
+
+    static class DropEvent {
+
+    }
+
+    static class Blocker {
+
+    }
+
+    static class OrderedEvent {
+
+        final int sequence;
+
+        OrderedEvent(int sequence) {
+            this.sequence = sequence;
+        }
+
+    }
+
+    static class BatchEvent {
+
+    }
+
+    static class Firer {
+
+    }
+
+    @Test
+    void testFailWhenFull() throws InterruptedException {
+        EventBus bus = EventBus.INSTANCE;
+        bus.limitQueue(FailEvent.class, 1, OverflowPolicy.FAIL);
+        // one lane, so fires after the first wait for it instead of starting
+        bus.orderBy(FailEvent.class, event -> "lane");
+        Completion held = new Completion();
+        CountDownLatch started = new CountDownLatch(1);
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(FailEvent.class)
+                .whenCalled(event -> {
+                    started.countDown();
+                    return held;
+                })
+                .completeSubscription());
+
+        try {
+            FireCompletion<FailEvent> first = bus.fire(new FailEvent());
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            FireCompletion<FailEvent> queued = bus.fire(new FailEvent());
+            Assertions.assertEquals(1, bus.getQueuedFires(FailEvent.class));
+
+            FireCompletion<FailEvent> rejected = bus.fire(new FailEvent());
+            Assertions.assertTrue(rejected.isCompleted());
+            Assertions.assertInstanceOf(RejectedExecutionException.class, errorsOf(rejected).get(0));
+
+            held.complete();
+            Assertions.assertTrue(errorsOf(first).isEmpty());
+            Assertions.assertTrue(errorsOf(queued).isEmpty());
+            Assertions.assertEquals(0, bus.getQueuedFires(FailEvent.class));
+        } finally {
+            subscription.unsubscribe();
+            bus.orderBy(FailEvent.class, null);
+        }
+    }
+
+    @Test
+    void testDropOldestWhenFull() throws InterruptedException {
+        EventExecutorTracker tracker = EventExecutorTracker.INSTANCE;
+        Assumptions.assumeFalse(tracker.isVirtual());
+        EventBus bus = EventBus.INSTANCE;
+        bus.limitQueue(DropEvent.class, 2, OverflowPolicy.DROP_OLDEST);
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(DropEvent.class)
+                .whenCalled(event -> {
+                })
+                .completeSubscription());
+
+        // keep every event thread busy, so fired events stay queued
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(tracker.getParallelism());
+        for (int i = 0; i < tracker.getParallelism(); i++) {
+            tracker.getExecutor(Blocker.class).execute(() -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        try {
+            Assertions.assertTrue(busy.await(5, TimeUnit.SECONDS));
+            FireCompletion<DropEvent> oldest = bus.fire(new DropEvent());
+            FireCompletion<DropEvent> second = bus.fire(new DropEvent());
+            FireCompletion<DropEvent> newest = bus.fire(new DropEvent());
+
+            Assertions.assertTrue(oldest.isCompleted());
+            Assertions.assertInstanceOf(RejectedExecutionException.class, errorsOf(oldest).get(0));
+            Assertions.assertEquals(2, bus.getQueuedFires(DropEvent.class));
+
+            release.countDown();
+            Assertions.assertTrue(errorsOf(second).isEmpty());
+            Assertions.assertTrue(errorsOf(newest).isEmpty());
+        } finally {
+            release.countDown();
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    void testOrderedFireFromEventThreadIsQueuedPastCapacity() throws InterruptedException {
+        EventBus bus = EventBus.INSTANCE;
+        bus.limitQueue(OrderedEvent.class, 1, OverflowPolicy.CALLER_RUNS);
+        bus.orderBy(OrderedEvent.class, event -> "lane");
+        Completion held = new Completion();
+        CountDownLatch started = new CountDownLatch(1);
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(OrderedEvent.class)
+                .whenCalled(event -> {
+                    seen.add(event.sequence);
+                    if (event.sequence == 1) {
+                        started.countDown();
+                        return held;
+                    }
+                    return Completion.completed();
+                })
+                .completeSubscription());
+
+        try {
+            FireCompletion<OrderedEvent> first = bus.fire(new OrderedEvent(1));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            FireCompletion<OrderedEvent> second = bus.fire(new OrderedEvent(2));
+            long overflows = EventExecutorTracker.INSTANCE.getOverflows(OrderedEvent.class);
+
+            // the queue is full: an event thread can neither wait nor run the fire itself
+            CompletableFuture<FireCompletion<OrderedEvent>> third = new CompletableFuture<>();
+            EventExecutorTracker.INSTANCE
+                    .getExecutor(Firer.class)
+                    .execute(() -> third.complete(bus.fire(new OrderedEvent(3))));
+            Assertions.assertFalse(third.join().isCompleted());
+            Assertions.assertEquals(2, bus.getQueuedFires(OrderedEvent.class));
+            Assertions.assertEquals(overflows + 1,
+                    EventExecutorTracker.INSTANCE.getOverflows(OrderedEvent.class)
+            );
+
+            held.complete();
+            Assertions.assertTrue(errorsOf(first).isEmpty());
+            Assertions.assertTrue(errorsOf(second).isEmpty());
+            Assertions.assertTrue(errorsOf(third.join()).isEmpty());
+            Assertions.assertEquals(Arrays.asList(1, 2, 3), seen);
+            Assertions.assertEquals(0, bus.getQueuedFires(OrderedEvent.class));
+        } finally {
+            subscription.unsubscribe();
+            bus.orderBy(OrderedEvent.class, null);
+        }
+    }
+
+    @Test
+    void testFireAllIsAdmitted() throws InterruptedException {
+        EventBus bus = EventBus.INSTANCE;
+        bus.limitQueue(BatchEvent.class, 1, OverflowPolicy.FAIL);
+        bus.orderBy(BatchEvent.class, event -> "lane");
+        Completion held = new Completion();
+        CountDownLatch started = new CountDownLatch(1);
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(BatchEvent.class)
+                .whenCalled(event -> {
+                    started.countDown();
+                    return held;
+                })
+                .completeSubscription());
+
+        try {
+            FireCompletion<BatchEvent> first = bus.fire(new BatchEvent());
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            FireCompletion<BatchEvent> queued = bus.fire(new BatchEvent());
+
+            List<FireResult<BatchEvent>> results = bus
+                    .fireAll(Arrays.asList(new BatchEvent(), new BatchEvent()))
+                    .toCompletableFuture()
+                    .join();
+            Assertions.assertEquals(2, results.size());
+            for (FireResult<BatchEvent> result : results) {
+                Assertions.assertFalse(result.isSuccessful());
+                Assertions.assertInstanceOf(RejectedExecutionException.class,
+                        result.errors().iterator().next()
+                );
+            }
+            Assertions.assertEquals(1, bus.getQueuedFires(BatchEvent.class));
+
+            held.complete();
+            Assertions.assertTrue(errorsOf(first).isEmpty());
+            Assertions.assertTrue(errorsOf(queued).isEmpty());
+        } finally {
+            subscription.unsubscribe();
+            bus.orderBy(BatchEvent.class, null);
+        }
+    }
+
+    private static List<Throwable> errorsOf(FireCompletion<?> completion) {
+        List<Throwable> errors = new ArrayList<>();
+        completion.whenCompleteBlocking((event, fireErrors) -> errors.addAll(fireErrors));
+        return errors;
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CompletionCallbackTest {
+
+    static class Event {
+
+    }
+
+    @Test
+    void testWhenCompleteDoesNotBlock() {
+        Completion completion = new Completion();
+        AtomicInteger calls = new AtomicInteger(0);
+
+        completion.whenComplete(errors -> calls.incrementAndGet());
+        Assertions.assertEquals(0, calls.get());
+
+        completion.complete();
+        Assertions.assertEquals(1, calls.get());
+
+        completion.whenComplete(errors -> calls.incrementAndGet());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testJoin() {
+        Completion first = new Completion();
+        Completion second = new Completion();
+        RuntimeException error = new RuntimeException();
+
+        Completion joined = Completion.join(first, second);
+        Assertions.assertFalse(joined.isCompleted());
+
+        second.completeExceptionally(error);
+        Assertions.assertFalse(joined.isCompleted());
+
+        first.complete();
+        Assertions.assertTrue(joined.isCompleted());
+        Assertions.assertEquals(1, joined.getErrors().size());
+        Assertions.assertSame(error, joined.getErrors().iterator().next());
+    }
+
+    @Test
+    void testCompletableFutureInterop() throws Exception {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Completion completion = Completion.fromCompletionStage(future);
+        Assertions.assertFalse(completion.isCompleted());
+
+        future.complete("done");
+        Assertions.assertTrue(completion.isCompleted());
+        Assertions.assertTrue(completion.getErrors().isEmpty());
+
+        RuntimeException error = new RuntimeException();
+        Completion failed = Completion.completedExceptionally(error);
+        ExecutionException thrown = Assertions.assertThrows(
+                ExecutionException.class,
+                () -> failed.toCompletableFuture().get()
+        );
+        Assertions.assertSame(error, thrown.getCause());
+    }
+
+    @Test
+    void testFireCompletionFuture()
+    throws InterruptedException, ExecutionException, TimeoutException {
+        EventBus bus = EventBus.INSTANCE;
+        bus.subscribe(bus.subscriptionFor(Event.class).whenCalled(event -> {
+            Completion completion = new Completion();
+            CompletableFuture.runAsync(completion::complete);
+            return completion;
+        }).completeSubscription());
+
+        Event event = new Event();
+        Assertions.assertSame(event, bus.fire(event).toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DispatchPlanTest {
+
+    static class FirstEvent {
+
+    }
+
+    static class SecondEvent extends FirstEvent {
+
+    }
+
+    @Test
+    void testPlanOrderAcrossHierarchy() {
+        EventBus bus = EventBus.INSTANCE;
+        LogCatcher log = new LogCatcher();
+
+        bus.subscribe(bus
+                .subscriptionFor(FirstEvent.class)
+                .withPriority(EventPriority.HIGH)
+                .whenCalled(event -> {
+                    log.log("first HIGH");
+                })
+                .completeSubscription());
+        bus.subscribe(bus
+                .subscriptionFor(SecondEvent.class)
+                .withPriority(EventPriority.NORMAL)
+                .whenCalled(event -> {
+                    log.log("second NORMAL");
+                })
+                .completeSubscription());
+
+        Assertions.assertEquals(2, bus.planFor(SecondEvent.class).size());
+
+        // subscribing after the plan got built has to replace it
+        bus.subscribe(bus
+                .subscriptionFor(FirstEvent.class)
+                .withPriority(EventPriority.LOW)
+                .whenCalled(event -> {
+                    log.log("first LOW");
+                })
+                .completeSubscription());
+
+        Assertions.assertEquals(3, bus.planFor(SecondEvent.class).size());
+
+        bus.fire(new SecondEvent()).whenCompleteBlocking((event, errors) -> {
+            Assertions.assertTrue(errors.isEmpty());
+            Assertions.assertEquals(
+                    Arrays.asList("first LOW", "second NORMAL", "first HIGH"),
+                    log.logs
+            );
+        });
+    }
+
+    @Test
+    void testDeepChainKeepsStackFlat() throws Exception {
+        int amount = 10_000;
+        AtomicInteger calls = new AtomicInteger(0);
+        EventSubscriber[] subscribers = new EventSubscriber[amount];
+        for (int i = 0; i < amount; i++) {
+            subscribers[i] = SimpleEventSubscriber.functional(
+                    FirstEvent.class,
+                    EventPriority.NORMAL,
+                    (FirstEvent event) -> {
+                        calls.incrementAndGet();
+                    }
+            );
+        }
+        DispatchPlan plan = new DispatchPlan(subscribers);
+
+        // a small stack overflows long before 10k nested callbacks
+        AtomicReference<Completion> result = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                result.set(plan.call(new FirstEvent()));
+            } catch (Throwable error) {
+                failure.set(error);
+            }
+        }, "DispatchPlanTest", 128 * 1024);
+        thread.start();
+        thread.join();
+
+        Assertions.assertNull(failure.get());
+        Assertions.assertTrue(result.get().isCompleted());
+        Assertions.assertTrue(result.get().getErrors().isEmpty());
+        Assertions.assertEquals(amount, calls.get());
+    }
+
+    @Test
+    void testMixedChainReportsErrors() throws Exception {
+        int amount = 1_000;
+        int failing = 600;
+        ExecutorService async = Executors.newSingleThreadExecutor();
+        AtomicInteger calls = new AtomicInteger(0);
+        IllegalStateException error = new IllegalStateException("subscriber " + failing);
+        EventSubscriber[] subscribers = new EventSubscriber[amount];
+        for (int i = 0; i < amount; i++) {
+            int index = i;
+            subscribers[i] = EventSubscriber.functional(
+                    FirstEvent.class,
+                    EventPriority.NORMAL,
+                    (FirstEvent event) -> {
+                        calls.incrementAndGet();
+                        if (index == failing) {
+                            return Completion.completedExceptionally(error);
+                        }
+                        if (index % 2 == 0) {
+                            return Completion.completed();
+                        }
+                        Completion completion = new Completion();
+                        async.execute(completion::complete);
+                        return completion;
+                    }
+            );
+        }
+
+        try {
+            Completion completion = new DispatchPlan(subscribers).call(new FirstEvent());
+            completion.toCompletableFuture().handle((ignored, e) -> null).get(5, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(Collections.singletonList(error), completion.getErrors());
+            Assertions.assertEquals(failing + 1, calls.get());
+        } finally {
+            async.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EventBusStatsTest {
+
+    static class StatsEvent {
+
+        final boolean fail;
+
+        StatsEvent(boolean fail) {
+            this.fail = fail;
+        }
+
+    }
+
+    @Test
+    void testStats() {
+        EventBus bus = EventBus.INSTANCE;
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(StatsEvent.class)
+                .whenCalled(event -> {
+                    if (event.fail) {
+                        throw new IllegalStateException("fail");
+                    }
+                })
+                .completeSubscription());
+
+        bus.fireSync(new StatsEvent(false));
+        Assertions.assertNull(find(bus.getStats()), "recorded while disabled");
+
+        bus.setStatsEnabled(true);
+        try {
+            bus.fireSync(new StatsEvent(false));
+            bus.fireSync(new StatsEvent(false));
+            bus.fireSync(new StatsEvent(true));
+
+            EventBusStats stats = bus.getStats();
+            Assertions.assertTrue(stats.isEnabled());
+            EventBusStats.EventStats eventStats = find(stats);
+            Assertions.assertNotNull(eventStats);
+            Assertions.assertEquals(3, eventStats.getFires());
+            Assertions.assertEquals(1, eventStats.getErrors());
+            Assertions.assertEquals(0, eventStats.getInFlight());
+            Assertions.assertEquals(3, eventStats.getLatency().getCount());
+
+            EventBusStats.SubscriberStats subscriberStats = stats
+                    .getSubscribers()
+                    .stream()
+                    .filter(s -> s.getSubscriber() == subscription.subscriber())
+                    .findFirst()
+                    .orElseThrow(AssertionError::new);
+            Assertions.assertEquals(3, subscriberStats.getCalls());
+            Assertions.assertEquals(1, subscriberStats.getErrors());
+
+            bus.resetStats();
+            Assertions.assertNull(find(bus.getStats()));
+        } finally {
+            bus.setStatsEnabled(false);
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+
+        EventBusStats.Latency latency = histogram.snapshot();
+        Assertions.assertEquals(100, latency.getCount());
+        Assertions.assertEquals(1_000_000, latency.getMax(TimeUnit.NANOSECONDS));
+        // power of two buckets: 1000ns lands in [512, 1024)
+        Assertions.assertEquals(1_023, latency.getPercentile(50, TimeUnit.NANOSECONDS));
+        Assertions.assertEquals(1_023, latency.getPercentile(99, TimeUnit.NANOSECONDS));
+        Assertions.assertEquals(1_000_000, latency.getPercentile(100, TimeUnit.NANOSECONDS));
+        Assertions.assertEquals(0, new LatencyHistogram()
+                .snapshot()
+                .getPercentile(50, TimeUnit.NANOSECONDS));
+    }
+
+    private static EventBusStats.EventStats find(EventBusStats stats) {
+        return stats
+                .getEvents()
+                .stream()
+                .filter(s -> s.getEventClass() == StatsEvent.class)
+                .findFirst()
+                .orElse(null);
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EventExecutorTrackerTest {
+
+    static class FirstEvent {
+
+    }
+
+    static class SecondEvent {
+
+    }
+
+    @Test
+    void testSharedExecutor() {
+        EventBus bus = EventBus.INSTANCE;
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        bus.subscribe(bus.subscriptionFor(FirstEvent.class).whenCalled(event -> {
+            threadNames.add(Thread.currentThread().getName());
+        }).completeSubscription());
+        bus.subscribe(bus.subscriptionFor(SecondEvent.class).whenCalled(event -> {
+            threadNames.add(Thread.currentThread().getName());
+        }).completeSubscription());
+
+        for (int i = 0; i < 100; i++) {
+            bus.fire(new FirstEvent()).waitCompletion();
+            bus.fire(new SecondEvent()).waitCompletion();
+        }
+
+        Assertions.assertFalse(threadNames.isEmpty());
+        for (String threadName : threadNames) {
+            Assertions.assertTrue(threadName.startsWith("Treasury Event Thread #"), threadName);
+        }
+        Assertions.assertNotSame(
+                EventExecutorTracker.INSTANCE.getExecutor(FirstEvent.class),
+                EventExecutorTracker.INSTANCE.getExecutor(SecondEvent.class)
+        );
+    }
+
+    @Test
+    void testExecutorMode() {
+        Assertions.assertEquals(
+                EventExecutorTracker.ExecutorMode.AUTO,
+                EventExecutorTracker.ExecutorMode.fromProperty(null)
+        );
+        Assertions.assertEquals(
+                EventExecutorTracker.ExecutorMode.POOL,
+                EventExecutorTracker.ExecutorMode.fromProperty("pool")
+        );
+        Assertions.assertEquals(
+                EventExecutorTracker.ExecutorMode.AUTO,
+                EventExecutorTracker.ExecutorMode.fromProperty("green threads")
+        );
+    }
+
+    @Test
+    void testVirtualThreadExecutor() throws Exception {
+        ExecutorService executor = EventExecutorTracker.newVirtualThreadExecutor();
+        if (executor == null) {
+            // virtual threads need Java 21
+            String version = System.getProperty("java.specification.version");
+            Assertions.assertTrue(version.startsWith("1.") || Integer.parseInt(version) < 21);
+            return;
+        }
+        try {
+            String threadName = executor
+                    .submit(() -> Thread.currentThread().getName())
+                    .get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(threadName.startsWith("Treasury Event Thread #"), threadName);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
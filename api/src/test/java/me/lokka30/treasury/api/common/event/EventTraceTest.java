@@ -0,0 +1,132 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EventTraceTest {
+
+    static class TracedEvent {
+
+    }
+
+    @Test
+    void testRingBufferKeepsNewest() {
+        EventTracer tracer = new EventTracer(4);
+        for (int i = 0; i < 6; i++) {
+            tracer.record(EventTrace.Stage.FIRE,
+                    TracedEvent.class,
+                    null,
+                    i,
+                    i,
+                    Thread.currentThread(),
+                    Collections.emptyList()
+            );
+        }
+
+        List<EventTrace.Entry> entries = tracer.snapshot().getEntries();
+        Assertions.assertEquals(4, entries.size());
+        Assertions.assertEquals(2, entries.get(0).getStartNanos());
+        Assertions.assertEquals(5, entries.get(3).getStartNanos());
+
+        tracer.clear();
+        Assertions.assertTrue(tracer.snapshot().getEntries().isEmpty());
+    }
+
+    @Test
+    void testTracesDispatchStages() {
+        EventBus bus = EventBus.INSTANCE;
+        IllegalStateException failure = new IllegalStateException("failed");
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(TracedEvent.class)
+                .withPriority(EventPriority.HIGH)
+                .whenCalled(event -> {
+                    return Completion.completedExceptionally(failure);
+                })
+                .completeSubscription());
+
+        bus.clearTrace();
+        bus.setTracingEnabled(true);
+        EventTracer.INSTANCE.setSampleRate(1);
+        try {
+            bus.fire(new TracedEvent()).toCompletableFuture().handle((e, error) -> e).join();
+        } finally {
+            bus.setTracingEnabled(false);
+            EventTracer.INSTANCE.setSampleRate(16);
+            subscription.unsubscribe();
+        }
+
+        List<EventTrace.Entry> entries = bus
+                .getTrace()
+                .getEntries()
+                .stream()
+                .filter(entry -> entry.getEventClass() == TracedEvent.class)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(3, entries.size());
+
+        EventTrace.Entry queued = entries.get(0);
+        Assertions.assertEquals(EventTrace.Stage.QUEUED, queued.getStage());
+        Assertions.assertTrue(queued.getThread().startsWith("Treasury Event Thread"));
+
+        EventTrace.Entry called = entries.get(1);
+        Assertions.assertEquals(EventTrace.Stage.SUBSCRIBER, called.getStage());
+        Assertions.assertSame(subscription.subscriber(), called.getSubscriber());
+        Assertions.assertEquals(EventPriority.HIGH, called.getPriority());
+        Assertions.assertSame(failure, called.getError());
+
+        EventTrace.Entry fire = entries.get(2);
+        Assertions.assertEquals(EventTrace.Stage.FIRE, fire.getStage());
+        Assertions.assertEquals(Thread.currentThread().getName(), fire.getThread());
+        Assertions.assertSame(failure, fire.getError());
+        Assertions.assertTrue(fire.getEndNanos() >= called.getEndNanos());
+    }
+
+    static class SampledEvent {
+
+    }
+
+    @Test
+    void testSampledFiresAreComplete() {
+        EventBus bus = EventBus.INSTANCE;
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(SampledEvent.class)
+                .whenCalled(event -> {
+                })
+                .completeSubscription());
+
+        bus.clearTrace();
+        bus.setTracingEnabled(true);
+        EventTracer.INSTANCE.setSampleRate(4);
+        try {
+            for (int i = 0; i < 400; i++) {
+                bus.fireSync(new SampledEvent());
+            }
+        } finally {
+            bus.setTracingEnabled(false);
+            EventTracer.INSTANCE.setSampleRate(16);
+            subscription.unsubscribe();
+        }
+
+        Map<EventTrace.Stage, Long> stages = bus
+                .getTrace()
+                .getEntries()
+                .stream()
+                .filter(entry -> entry.getEventClass() == SampledEvent.class)
+                .collect(Collectors.groupingBy(EventTrace.Entry::getStage,
+                        Collectors.counting()
+                ));
+        long fires = stages.getOrDefault(EventTrace.Stage.FIRE, 0L);
+        Assertions.assertTrue(fires > 0 && fires < 400, "traced fires: " + fires);
+        // every traced fire has all of its stages
+        Assertions.assertEquals(fires, stages.get(EventTrace.Stage.QUEUED));
+        Assertions.assertEquals(fires, stages.get(EventTrace.Stage.SUBSCRIBER));
+    }
+
+}
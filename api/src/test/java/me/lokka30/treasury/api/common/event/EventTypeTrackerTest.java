@@ -0,0 +1,68 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EventTypeTrackerTest {
+
+    interface Tagged {
+
+    }
+
+    static class FirstEvent implements Cancellable {
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void setCancelled(final boolean cancel) {
+        }
+
+    }
+
+    static class SecondEvent extends FirstEvent implements Tagged {
+
+    }
+
+    @Test
+    void testFriends() {
+        EventTypeTracker tracker = new EventTypeTracker();
+
+        Assertions.assertEquals(
+                Arrays.asList(FirstEvent.class, Tagged.class),
+                tracker.getFriendsOf(SecondEvent.class)
+        );
+        Assertions.assertTrue(tracker.getFriendsOf(FirstEvent.class).isEmpty());
+    }
+
+    @Test
+    void testConcurrentFirstLookup() throws Exception {
+        EventTypeTracker tracker = new EventTypeTracker();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Class<?>>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                lookups.add(executor.submit(() -> tracker.getFriendsOf(SecondEvent.class)));
+            }
+            List<Class<?>> first = lookups.get(0).get();
+            for (Future<List<Class<?>>> lookup : lookups) {
+                Assertions.assertSame(first, lookup.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FireAllTest {
+
+    static class BatchEvent {
+
+        final int id;
+
+        BatchEvent(int id) {
+            this.id = id;
+        }
+
+    }
+
+    static class OtherBatchEvent extends BatchEvent {
+
+        OtherBatchEvent(int id) {
+            super(id);
+        }
+
+    }
+
+    @Test
+    void testBatchPipeline() throws Exception {
+        EventBus bus = EventBus.INSTANCE;
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        Subscription first = bus.subscribe(bus
+                .subscriptionFor(BatchEvent.class)
+                .withPriority(EventPriority.LOW)
+                .whenCalled(event -> {
+                    if (event.id == 2) {
+                        throw new IllegalStateException("event 2");
+                    }
+                    calls.add("single " + event.id);
+                })
+                .completeSubscription());
+        Subscription second = bus.subscribe(bus
+                .subscriptionFor(BatchEvent.class)
+                .withPriority(EventPriority.HIGH)
+                .whenBatchCalled(events -> {
+                    StringBuilder call = new StringBuilder("batch");
+                    for (BatchEvent event : events) {
+                        call.append(' ').append(event.id);
+                    }
+                    calls.add(call.toString());
+                    return Completion.completed();
+                })
+                .completeSubscription());
+
+        try {
+            List<BatchEvent> events = Arrays.asList(
+                    new BatchEvent(1),
+                    new OtherBatchEvent(2),
+                    new BatchEvent(3)
+            );
+            List<FireResult<BatchEvent>> results = bus
+                    .fireAll(events)
+                    .toCompletableFuture()
+                    .get(5, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(3, results.size());
+            for (int i = 0; i < events.size(); i++) {
+                Assertions.assertSame(events.get(i), results.get(i).event());
+            }
+            Assertions.assertTrue(results.get(0).isSuccessful());
+            Assertions.assertFalse(results.get(1).isSuccessful());
+            Assertions.assertEquals("event 2",
+                    results.get(1).errors().iterator().next().getMessage()
+            );
+            Assertions.assertTrue(results.get(2).isSuccessful());
+
+            // the failed event never reaches the batch subscriber, the others get there in one
+            // call per event class
+            Assertions.assertTrue(calls.contains("batch 1 3"));
+            Assertions.assertFalse(calls.stream().anyMatch(call -> call.startsWith("batch 2")));
+            Assertions.assertTrue(calls.indexOf("single 1") < calls.indexOf("batch 1 3"));
+            Assertions.assertTrue(calls.indexOf("single 3") < calls.indexOf("batch 1 3"));
+        } finally {
+            first.unsubscribe();
+            second.unsubscribe();
+        }
+    }
+
+    @Test
+    void testEmptyBatch() {
+        FireCompletion<List<FireResult<Object>>> completion = EventBus.INSTANCE.fireAll(
+                Collections.emptyList());
+        Assertions.assertTrue(completion.isCompleted());
+        completion.whenComplete((results, errors) -> Assertions.assertTrue(results.isEmpty()));
+    }
+
+}
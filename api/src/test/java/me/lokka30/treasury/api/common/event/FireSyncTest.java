@@ -0,0 +1,150 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FireSyncTest {
+
+    static class SyncEvent {
+
+    }
+
+    static class DeferredEvent {
+
+    }
+
+    static class ExecutorEvent {
+
+    }
+
+    static class RejectedEvent {
+
+    }
+
+    @Test
+    void testFireSyncRunsOnCallingThread() {
+        EventBus bus = EventBus.INSTANCE;
+        AtomicReference<Thread> calledOn = new AtomicReference<>();
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(SyncEvent.class)
+                .whenCalled(event -> {
+                    calledOn.set(Thread.currentThread());
+                })
+                .completeSubscription());
+
+        try {
+            FireCompletion<SyncEvent> completion = bus.fireSync(new SyncEvent());
+            Assertions.assertTrue(completion.isCompleted());
+            Assertions.assertSame(Thread.currentThread(), calledOn.get());
+        } finally {
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    void testFireSyncContinuesOnCompletingThread() throws Exception {
+        EventBus bus = EventBus.INSTANCE;
+        Completion pending = new Completion();
+        AtomicReference<Thread> calledOn = new AtomicReference<>();
+        Subscription first = bus.subscribe(bus
+                .subscriptionFor(DeferredEvent.class)
+                .withPriority(EventPriority.LOW)
+                .whenCalled(event -> pending)
+                .completeSubscription());
+        Subscription second = bus.subscribe(bus
+                .subscriptionFor(DeferredEvent.class)
+                .withPriority(EventPriority.HIGH)
+                .whenCalled(event -> {
+                    calledOn.set(Thread.currentThread());
+                })
+                .completeSubscription());
+
+        try {
+            FireCompletion<DeferredEvent> completion = bus.fireSync(new DeferredEvent());
+            Assertions.assertFalse(completion.isCompleted());
+            Assertions.assertNull(calledOn.get());
+
+            Thread completer = new Thread(pending::complete);
+            completer.start();
+            completer.join(TimeUnit.SECONDS.toMillis(5));
+
+            Assertions.assertTrue(completion.isCompleted());
+            Assertions.assertSame(completer, calledOn.get());
+        } finally {
+            first.unsubscribe();
+            second.unsubscribe();
+        }
+    }
+
+    @Test
+    void testFireOn() throws Exception {
+        EventBus bus = EventBus.INSTANCE;
+        AtomicReference<Thread> calledOn = new AtomicReference<>();
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(ExecutorEvent.class)
+                .whenCalled(event -> {
+                    calledOn.set(Thread.currentThread());
+                })
+                .completeSubscription());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> new Thread(
+                task,
+                "FireSyncTest executor"
+        ));
+        try {
+            bus.fireOn(new ExecutorEvent(), executor).toCompletableFuture().get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals("FireSyncTest executor", calledOn.get().getName());
+        } finally {
+            executor.shutdown();
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    void testFireOnRejected() {
+        EventBus bus = EventBus.INSTANCE;
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(RejectedEvent.class)
+                .whenCalled(event -> {
+                    Assertions.fail("called although the executor rejected it");
+                })
+                .completeSubscription());
+
+        bus.setStatsEnabled(true);
+        try {
+            FireCompletion<RejectedEvent> completion = bus.fireOn(new RejectedEvent(), task -> {
+                throw new RejectedExecutionException("full");
+            });
+            Assertions.assertTrue(completion.isCompleted());
+            List<Throwable> errors = new ArrayList<>();
+            completion.whenCompleteBlocking((event, fireErrors) -> errors.addAll(fireErrors));
+            Assertions.assertInstanceOf(RejectedExecutionException.class, errors.get(0));
+
+            EventBusStats.EventStats stats = bus
+                    .getStats()
+                    .getEvents()
+                    .stream()
+                    .filter(s -> s.getEventClass() == RejectedEvent.class)
+                    .findFirst()
+                    .orElseThrow(AssertionError::new);
+            Assertions.assertEquals(0, stats.getInFlight());
+            Assertions.assertEquals(1, stats.getErrors());
+        } finally {
+            bus.setStatsEnabled(false);
+            bus.resetStats();
+            subscription.unsubscribe();
+        }
+    }
+
+}
@@ -4,6 +4,8 @@
 
 package me.lokka30.treasury.api.common.event;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -16,10 +18,17 @@ class IgnoredCallOutcomeTest {
 
     static final EventBus eventBus = EventBus.INSTANCE;
     static LogCatcher logCatcher = new LogCatcher();
+    // holds the subscriber until the caller has logged, fire doesn't order the two
+    static CountDownLatch fired = new CountDownLatch(1);
 
     @BeforeAll
     static void prepare() {
         eventBus.subscribe(eventBus.subscriptionFor(TestEvent.class).whenCalled(foo -> {
+            try {
+                fired.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
             logCatcher.log("called");
         }).completeSubscription());
     }
@@ -28,6 +37,7 @@ class IgnoredCallOutcomeTest {
     void testIgnoredCallOutcome() {
         eventBus.fire(new TestEvent());
         logCatcher.log("fired");
+        fired.countDown();
 
         try {
             // wait 100ms to make sure everything has settled
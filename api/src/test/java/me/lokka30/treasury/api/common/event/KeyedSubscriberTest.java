@@ -0,0 +1,89 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class KeyedSubscriberTest {
+
+    static class KeyedEvent {
+
+        final String currency;
+        final String account;
+
+        KeyedEvent(String currency, String account) {
+            this.currency = currency;
+            this.account = account;
+        }
+
+    }
+
+    static final Function<KeyedEvent, String> BY_CURRENCY = event -> event.currency;
+    static final Function<KeyedEvent, String> BY_ACCOUNT = event -> event.account;
+
+    final EventBus bus = EventBus.INSTANCE;
+    final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    final List<Subscription> subscriptions = new ArrayList<>();
+
+    @AfterEach
+    void unsubscribe() {
+        subscriptions.forEach(Subscription::unsubscribe);
+    }
+
+    private void subscribe(
+            String name, EventPriority priority, Function<KeyedEvent, String> extractor, String key
+    ) {
+        EventBus.EventSubscriberBuilder<KeyedEvent> builder = bus
+                .subscriptionFor(KeyedEvent.class)
+                .withPriority(priority)
+                .whenCalled(event -> {
+                    calls.add(name);
+                });
+        if (extractor != null) {
+            builder.filteredBy(extractor, key);
+        }
+        subscriptions.add(bus.subscribe(builder.completeSubscription()));
+    }
+
+    @Test
+    void testOnlyMatchingKeysAreCalled() {
+        subscribe("coins", EventPriority.LOW, BY_CURRENCY, "coins");
+        subscribe("all", EventPriority.NORMAL, null, null);
+        subscribe("gems", EventPriority.NORMAL, BY_CURRENCY, "gems");
+        subscribe("coins-high", EventPriority.HIGH, BY_CURRENCY, "coins");
+        subscribe("bob", EventPriority.HIGH, BY_ACCOUNT, "bob");
+
+        bus.fireSync(new KeyedEvent("coins", "alice"));
+        Assertions.assertEquals(Arrays.asList("coins", "all", "coins-high"), calls);
+
+        calls.clear();
+        bus.fireSync(new KeyedEvent("gems", "bob"));
+        Assertions.assertEquals(Arrays.asList("all", "gems", "bob"), calls);
+
+        calls.clear();
+        bus.fireSync(new KeyedEvent("tokens", "bob"));
+        Assertions.assertEquals(Arrays.asList("all", "bob"), calls);
+    }
+
+    @Test
+    void testFireAllFiltersKeys() {
+        subscribe("coins", EventPriority.NORMAL, BY_CURRENCY, "coins");
+        subscribe("all", EventPriority.HIGH, null, null);
+
+        bus.fireAll(Arrays.asList(
+                new KeyedEvent("coins", "alice"),
+                new KeyedEvent("gems", "alice")
+        )).toCompletableFuture().join();
+        Assertions.assertEquals(Arrays.asList("coins", "all", "all"), calls);
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class OrderedFireTest {
+
+    static class OrderedEvent {
+
+        final String key;
+        final int sequence;
+
+        OrderedEvent(String key, int sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+    }
+
+    static class BlockingEvent {
+
+        final String key;
+
+        BlockingEvent(String key) {
+            this.key = key;
+        }
+
+    }
+
+    @Test
+    void testSameKeyIsDeliveredInOrder() {
+        EventBus bus = EventBus.INSTANCE;
+        bus.orderBy(OrderedEvent.class, event -> event.key);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(OrderedEvent.class)
+                .whenCalled(event -> {
+                    Completion completion = new Completion();
+                    // completes later on another thread, the next event of the key has to wait
+                    new Thread(() -> {
+                        LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(200_000));
+                        seen
+                                .computeIfAbsent(event.key, k -> new CopyOnWriteArrayList<>())
+                                .add(event.sequence);
+                        completion.complete();
+                    }).start();
+                    return completion;
+                })
+                .completeSubscription());
+
+        try {
+            List<FireCompletion<OrderedEvent>> fired = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                for (String key : new String[]{"alice", "bob", "carol"}) {
+                    fired.add(bus.fire(new OrderedEvent(key, i)));
+                }
+            }
+            fired.forEach(completion -> completion.toCompletableFuture().join());
+
+            for (List<Integer> sequences : seen.values()) {
+                Assertions.assertEquals(50, sequences.size());
+                for (int i = 0; i < sequences.size(); i++) {
+                    Assertions.assertEquals(i, sequences.get(i));
+                }
+            }
+        } finally {
+            subscription.unsubscribe();
+            bus.orderBy(OrderedEvent.class, null);
+        }
+    }
+
+    @Test
+    void testOtherKeysAreNotHeldUp() throws InterruptedException {
+        EventBus bus = EventBus.INSTANCE;
+        bus.orderBy(BlockingEvent.class, event -> event.key);
+        Completion held = new Completion();
+        CountDownLatch otherCalled = new CountDownLatch(1);
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(BlockingEvent.class)
+                .whenCalled(event -> {
+                    if (event.key.equals("a")) {
+                        return held;
+                    }
+                    otherCalled.countDown();
+                    return Completion.completed();
+                })
+                .completeSubscription());
+
+        try {
+            FireCompletion<BlockingEvent> first = bus.fire(new BlockingEvent("a"));
+            FireCompletion<BlockingEvent> queued = bus.fire(new BlockingEvent("a"));
+            bus.fire(new BlockingEvent("b"));
+
+            Assertions.assertTrue(otherCalled.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(first.isCompleted());
+            Assertions.assertFalse(queued.isCompleted());
+
+            held.complete();
+            queued.toCompletableFuture().join();
+            Assertions.assertTrue(first.isCompleted());
+        } finally {
+            subscription.unsubscribe();
+            bus.orderBy(BlockingEvent.class, null);
+        }
+    }
+
+}
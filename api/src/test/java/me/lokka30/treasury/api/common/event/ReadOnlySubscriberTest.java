@@ -0,0 +1,73 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ReadOnlySubscriberTest {
+
+    static class Event {
+
+    }
+
+    @Test
+    void testReadOnlySubscribersRunConcurrently() throws Exception {
+        EventBus bus = EventBus.INSTANCE;
+        LogCatcher log = new LogCatcher();
+        // only released once both read-only subscribers are running at the same time
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        Subscription[] subscriptions = new Subscription[4];
+        for (int i = 0; i < 2; i++) {
+            subscriptions[i] = bus.subscribe(bus
+                    .subscriptionFor(Event.class)
+                    .readOnly(true)
+                    .whenCalled(event -> {
+                        bothRunning.countDown();
+                        try {
+                            if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                                throw new IllegalStateException("not called concurrently");
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        synchronized (log) {
+                            log.log("read-only");
+                        }
+                    })
+                    .completeSubscription());
+        }
+        subscriptions[2] = bus.subscribe(bus
+                .subscriptionFor(Event.class)
+                .whenCalled(event -> {
+                    log.log("normal");
+                })
+                .completeSubscription());
+        subscriptions[3] = bus.subscribe(bus
+                .subscriptionFor(Event.class)
+                .withPriority(EventPriority.HIGH)
+                .whenCalled(event -> {
+                    log.log("high");
+                })
+                .completeSubscription());
+
+        try {
+            bus.fire(new Event()).toCompletableFuture().get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(
+                    Arrays.asList("normal", "read-only", "read-only", "high"),
+                    log.logs
+            );
+        } finally {
+            for (Subscription subscription : subscriptions) {
+                subscription.unsubscribe();
+            }
+        }
+    }
+
+}
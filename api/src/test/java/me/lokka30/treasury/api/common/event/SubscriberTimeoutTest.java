@@ -0,0 +1,104 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SubscriberTimeoutTest {
+
+    static class SlowEvent {
+
+    }
+
+    static class StuckEvent {
+
+    }
+
+    @Test
+    void testTimedOutSubscriberIsSkipped() {
+        EventBus bus = EventBus.INSTANCE;
+        AtomicBoolean laterCalled = new AtomicBoolean(false);
+        Subscription stuck = bus.subscribe(bus
+                .subscriptionFor(SlowEvent.class)
+                .withPriority(EventPriority.LOW)
+                .withTimeout(50, TimeUnit.MILLISECONDS)
+                .whenCalled(event -> {
+                    return new Completion();
+                })
+                .completeSubscription());
+        Subscription later = bus.subscribe(bus
+                .subscriptionFor(SlowEvent.class)
+                .withPriority(EventPriority.HIGH)
+                .whenCalled(event -> {
+                    laterCalled.set(true);
+                })
+                .completeSubscription());
+
+        try {
+            List<Throwable> errors = fireAndWait(bus.fire(new SlowEvent()));
+            Assertions.assertTrue(laterCalled.get());
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertInstanceOf(SubscriberTimeoutException.class, errors.get(0));
+            Assertions.assertSame(
+                    stuck.subscriber(),
+                    ((SubscriberTimeoutException) errors.get(0)).getSubscriber()
+            );
+        } finally {
+            stuck.unsubscribe();
+            later.unsubscribe();
+        }
+    }
+
+    @Test
+    void testFireTimeoutStopsChain() {
+        EventBus bus = EventBus.INSTANCE;
+        AtomicBoolean laterCalled = new AtomicBoolean(false);
+        Subscription stuck = bus.subscribe(bus
+                .subscriptionFor(StuckEvent.class)
+                .withPriority(EventPriority.LOW)
+                .withTimeout(-1, TimeUnit.MILLISECONDS)
+                .whenCalled(event -> {
+                    return new Completion();
+                })
+                .completeSubscription());
+        Subscription later = bus.subscribe(bus
+                .subscriptionFor(StuckEvent.class)
+                .withPriority(EventPriority.HIGH)
+                .whenCalled(event -> {
+                    laterCalled.set(true);
+                })
+                .completeSubscription());
+
+        try {
+            List<Throwable> errors = fireAndWait(bus.fire(
+                    new StuckEvent(),
+                    50,
+                    TimeUnit.MILLISECONDS
+            ));
+            Assertions.assertFalse(laterCalled.get());
+            Assertions.assertEquals(2, errors.size());
+            Assertions.assertInstanceOf(SubscriberTimeoutException.class, errors.get(0));
+            Assertions.assertInstanceOf(TimeoutException.class, errors.get(1));
+        } finally {
+            stuck.unsubscribe();
+            later.unsubscribe();
+        }
+    }
+
+    private static List<Throwable> fireAndWait(FireCompletion<?> completion) {
+        List<Throwable> errors = new ArrayList<>();
+        completion.whenCompleteBlocking((event, fireErrors) -> errors.addAll(fireErrors));
+        Assertions.assertTrue(completion.isCompleted());
+        return errors;
+    }
+
+}
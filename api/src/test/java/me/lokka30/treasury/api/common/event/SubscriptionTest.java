@@ -0,0 +1,96 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SubscriptionTest {
+
+    static class Event {
+
+    }
+
+    static class OwnedEvent {
+
+    }
+
+    static class UnheardEvent {
+
+    }
+
+    static class UnheardSubEvent extends UnheardEvent {
+
+    }
+
+    @Test
+    void testUnsubscribe() {
+        EventBus bus = EventBus.INSTANCE;
+        AtomicInteger calls = new AtomicInteger(0);
+
+        Subscription subscription = bus.subscribe(bus.subscriptionFor(Event.class).whenCalled(event -> {
+            calls.incrementAndGet();
+        }).completeSubscription());
+
+        bus.fire(new Event()).waitCompletion();
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertTrue(subscription.isActive());
+
+        Assertions.assertTrue(subscription.unsubscribe());
+        Assertions.assertFalse(subscription.unsubscribe());
+        Assertions.assertFalse(subscription.isActive());
+        Assertions.assertTrue(bus.planFor(Event.class).isEmpty());
+
+        bus.fire(new Event()).waitCompletion();
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testUnsubscribeAll() {
+        EventBus bus = EventBus.INSTANCE;
+        AtomicInteger calls = new AtomicInteger(0);
+
+        for (int i = 0; i < 3; i++) {
+            bus.subscribe("SomePlugin", bus.subscriptionFor(OwnedEvent.class).whenCalled(event -> {
+                calls.incrementAndGet();
+            }).completeSubscription());
+        }
+        Subscription other = bus.subscribe(
+                "OtherPlugin",
+                bus.subscriptionFor(OwnedEvent.class).whenCalled(event -> {
+                    calls.incrementAndGet();
+                }).completeSubscription()
+        );
+
+        Assertions.assertEquals(3, bus.unsubscribeAll("someplugin"));
+        Assertions.assertTrue(other.isActive());
+        Assertions.assertEquals(1, bus.planFor(OwnedEvent.class).size());
+
+        bus.fire(new OwnedEvent()).waitCompletion();
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFireWithoutSubscribers() {
+        EventBus bus = EventBus.INSTANCE;
+        Assertions.assertFalse(bus.hasSubscribers(UnheardSubEvent.class));
+
+        UnheardSubEvent event = new UnheardSubEvent();
+        FireCompletion<UnheardSubEvent> completion = bus.fire(event);
+        Assertions.assertTrue(completion.isCompleted());
+        Assertions.assertSame(event, completion.toCompletableFuture().join());
+
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(UnheardEvent.class)
+                .whenCalled(e -> {
+                })
+                .completeSubscription());
+        Assertions.assertTrue(bus.hasSubscribers(UnheardSubEvent.class));
+        subscription.unsubscribe();
+        Assertions.assertFalse(bus.hasSubscribers(UnheardSubEvent.class));
+    }
+
+}
@@ -0,0 +1,56 @@
+package me.lokka30.treasury.api.common.misc;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SortedArrayListTest {
+
+    static class Entry implements Comparable<Entry> {
+
+        final int priority;
+        final String name;
+
+        Entry(int priority, String name) {
+            this.priority = priority;
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Integer.compare(priority, other.priority);
+        }
+
+    }
+
+    @Test
+    void testSortedArrayList() {
+        List<Integer> list = new SortedArrayList<>();
+        list.add(3);
+        list.add(1);
+        list.add(2);
+        list.add(5);
+        list.add(4);
+
+        Assertions.assertEquals(1, list.get(0));
+        Assertions.assertEquals(2, list.get(1));
+        Assertions.assertEquals(3, list.get(2));
+        Assertions.assertEquals(4, list.get(3));
+        Assertions.assertEquals(5, list.get(4));
+    }
+
+    @Test
+    void testInsertionOrderOfEqualElements() {
+        List<Entry> list = new SortedArrayList<>();
+        list.add(new Entry(1, "first"));
+        list.add(new Entry(0, "low"));
+        list.add(new Entry(1, "second"));
+        list.add(new Entry(1, "third"));
+
+        Assertions.assertEquals("low", list.get(0).name);
+        Assertions.assertEquals("first", list.get(1).name);
+        Assertions.assertEquals("second", list.get(2).name);
+        Assertions.assertEquals("third", list.get(3).name);
+    }
+
+}
@@ -0,0 +1,198 @@
+package me.lokka30.treasury.api.common.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import me.lokka30.treasury.api.common.event.EventBus;
+import me.lokka30.treasury.api.common.event.Subscription;
+import me.lokka30.treasury.api.common.service.event.ServicesChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ServiceRegistryTest {
+
+    interface Greeter {
+
+        String greet();
+
+    }
+
+    static Greeter greeter(String greeting) {
+        return () -> greeting;
+    }
+
+    @AfterEach
+    void cleanup() {
+        ServiceRegistry.INSTANCE.unregisterAll("test");
+        ServiceRegistry.INSTANCE.unregisterAll("other");
+    }
+
+    @Test
+    void testPrimaryFollowsPriority() {
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        Assertions.assertFalse(registry.serviceFor(Greeter.class).isPresent());
+
+        registry.registerService(Greeter.class, greeter("low"), "test", ServicePriority.LOW);
+        registry.registerService(Greeter.class, greeter("first"), "test", ServicePriority.NORMAL);
+        registry.registerService(Greeter.class, greeter("second"), "other", ServicePriority.NORMAL);
+        Assertions.assertEquals("first", registry.serviceFor(Greeter.class).get().get().greet());
+        Assertions.assertEquals(3, registry.allServicesFor(Greeter.class).size());
+
+        Greeter high = greeter("high");
+        registry.registerService(Greeter.class, high, "other", ServicePriority.HIGH);
+        Assertions.assertEquals("high", registry.serviceFor(Greeter.class).get().get().greet());
+
+        registry.unregister(Greeter.class, high);
+        Assertions.assertEquals("first", registry.serviceFor(Greeter.class).get().get().greet());
+
+        registry.unregisterAll("test");
+        Set<Service<Greeter>> left = registry.allServicesFor(Greeter.class);
+        Assertions.assertEquals(1, left.size());
+        Assertions.assertEquals("second", left.iterator().next().get().greet());
+
+        registry.unregisterAll("other");
+        Assertions.assertFalse(registry.hasRegistration(Greeter.class));
+        Assertions.assertFalse(registry.serviceFor(Greeter.class).isPresent());
+        Assertions.assertTrue(registry.allServicesFor(Greeter.class).isEmpty());
+    }
+
+    @Test
+    void testHandleTracksPrimary() {
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        Greeter normal = greeter("normal");
+        registry.registerService(Greeter.class, normal, "test", ServicePriority.NORMAL);
+
+        ServiceHandle<Greeter> handle = registry.handleFor(Greeter.class);
+        Assertions.assertSame(handle, registry.handleFor(Greeter.class));
+        Assertions.assertSame(normal, handle.get());
+
+        Greeter high = greeter("high");
+        registry.registerService(Greeter.class, high, "other", ServicePriority.HIGH);
+        Assertions.assertSame(high, handle.get());
+        Assertions.assertEquals("other", handle.service().get().registrarName());
+
+        registry.unregisterAll("other");
+        Assertions.assertSame(normal, handle.get());
+
+        registry.unregister(Greeter.class, normal);
+        Assertions.assertFalse(handle.isPresent());
+        Assertions.assertNull(handle.get());
+        Assertions.assertFalse(handle.service().isPresent());
+    }
+
+    @Test
+    void testTransactionAppliesNetChangesAtOnce() throws Exception {
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        Greeter kept = greeter("kept");
+        Greeter moved = greeter("moved");
+        Greeter temporary = greeter("temporary");
+        registry.registerService(Greeter.class, kept, "test", ServicePriority.NORMAL);
+        registry.registerService(Greeter.class, moved, "other", ServicePriority.LOW);
+        ServiceHandle<Greeter> handle = registry.handleFor(Greeter.class);
+
+        CompletableFuture<ServicesChangedEvent> changed = new CompletableFuture<>();
+        EventBus bus = EventBus.INSTANCE;
+        Subscription subscription = bus.subscribe(bus
+                .subscriptionFor(ServicesChangedEvent.class)
+                .whenCalled(changed::complete)
+                .completeSubscription());
+        try {
+            registry.transaction(tx -> {
+                tx
+                        .registerService(Greeter.class, temporary, "test", ServicePriority.HIGH)
+                        .unregister(Greeter.class, moved)
+                        .registerService(Greeter.class, moved, "other", ServicePriority.HIGH)
+                        .unregister(Greeter.class, temporary);
+                // nothing is applied before the transaction ends
+                Assertions.assertSame(kept, handle.get());
+            });
+            Assertions.assertSame(moved, handle.get());
+            Assertions.assertEquals(2, registry.allServicesFor(Greeter.class).size());
+
+            ServicesChangedEvent event = changed.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(1, event.getAdded().size());
+            Assertions.assertSame(moved, event.getAdded().get(0).get());
+            Assertions.assertEquals(ServicePriority.HIGH, event.getAdded().get(0).priority());
+            Assertions.assertEquals(1, event.getRemoved().size());
+            Assertions.assertSame(moved, event.getRemoved().get(0).get());
+            Assertions.assertEquals(ServicePriority.LOW, event.getRemoved().get(0).priority());
+        } finally {
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    void testFailedTransactionAppliesNothing() {
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        ServiceTransaction[] leaked = new ServiceTransaction[1];
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.transaction(tx -> {
+            tx.registerService(Greeter.class, greeter("never"), "test", ServicePriority.NORMAL);
+            leaked[0] = tx;
+            throw new IllegalArgumentException();
+        }));
+        Assertions.assertFalse(registry.hasRegistration(Greeter.class));
+
+        registry.transaction(tx -> leaked[0] = tx);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> leaked[0].unregister(Greeter.class, greeter("never"))
+        );
+    }
+
+    @Test
+    void testLazyServiceCreatedOnce() throws Exception {
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        AtomicInteger created = new AtomicInteger();
+        Supplier<Greeter> supplier = () -> {
+            created.incrementAndGet();
+            return greeter("lazy");
+        };
+        registry.registerLazy(Greeter.class, supplier, "test", ServicePriority.NORMAL);
+
+        Service<Greeter> service = registry.serviceFor(Greeter.class).get();
+        Assertions.assertFalse(service.isInitialized());
+        Assertions.assertEquals(Greeter.class, service.serviceType());
+        Assertions.assertEquals(0, created.get());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Greeter>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> registry.handleFor(Greeter.class).get()));
+            }
+            Greeter first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Greeter> result : results) {
+                Assertions.assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertTrue(service.isInitialized());
+
+        registry.unregister(Greeter.class, service.get());
+        Assertions.assertFalse(registry.hasRegistration(Greeter.class));
+    }
+
+    @Test
+    void testUnregisterLazyServiceBySupplier() {
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        Supplier<Greeter> supplier = () -> {
+            throw new AssertionError("must not be created");
+        };
+        registry.registerLazy(Greeter.class, supplier, "test", ServicePriority.NORMAL);
+        registry.unregister(Greeter.class, greeter("unrelated"));
+        Assertions.assertTrue(registry.hasRegistration(Greeter.class));
+
+        registry.unregister(Greeter.class, supplier);
+        Assertions.assertFalse(registry.hasRegistration(Greeter.class));
+    }
+
+}
@@ -0,0 +1,495 @@
+package me.lokka30.treasury.api.economy;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServicePriority;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.misc.OptionalEconomyApiFeature;
+import me.lokka30.treasury.api.economy.response.EconomyException;
+import me.lokka30.treasury.api.economy.response.EconomyFailureReason;
+import me.lokka30.treasury.api.economy.response.EconomySubscriber;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class FailoverEconomyProviderTest {
+
+    // Answers hasPlayerAccount with what answer does, and nothing else.
+    static class TestEconomy implements EconomyProvider {
+
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Consumer<EconomySubscriber<Boolean>> answer;
+
+        TestEconomy(Consumer<EconomySubscriber<Boolean>> answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public void hasPlayerAccount(
+                @NotNull UUID accountId, @NotNull EconomySubscriber<Boolean> subscription
+        ) {
+            calls.incrementAndGet();
+            answer.accept(subscription);
+        }
+
+        @Override
+        public @NotNull Set<OptionalEconomyApiFeature> getSupportedOptionalEconomyApiFeatures() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void retrievePlayerAccount(
+                @NotNull UUID accountId, @NotNull EconomySubscriber<PlayerAccount> subscription
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void createPlayerAccount(
+                @NotNull UUID accountId, @NotNull EconomySubscriber<PlayerAccount> subscription
+        ) {
+            calls.incrementAndGet();
+            subscription.fail(new EconomyException(EconomyFailureReason.ACCOUNT_ALREADY_EXISTS));
+        }
+
+        @Override
+        public void retrievePlayerAccountIds(@NotNull EconomySubscriber<Collection<UUID>> subscription) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void hasAccount(
+                @NotNull String identifier, @NotNull EconomySubscriber<Boolean> subscription
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void retrieveAccount(
+                @NotNull String identifier, @NotNull EconomySubscriber<Account> subscription
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void createAccount(
+                @Nullable String name,
+                @NotNull String identifier,
+                @NotNull EconomySubscriber<Account> subscription
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void retrieveAccountIds(@NotNull EconomySubscriber<Collection<String>> subscription) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void retrieveNonPlayerAccountIds(@NotNull EconomySubscriber<Collection<String>> subscription) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull Currency getPrimaryCurrency() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Currency> findCurrency(@NotNull String identifier) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<Currency> getCurrencies() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerCurrency(
+                @NotNull Currency currency, @NotNull EconomySubscriber<Boolean> subscription
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    static boolean hasPlayerAccount(EconomyProvider economy) throws Exception {
+        return EconomySubscriber
+                .<Boolean>asFuture(s -> economy.hasPlayerAccount(UUID.randomUUID(), s))
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    static Consumer<EconomySubscriber<Boolean>> answering(boolean value) {
+        return subscription -> subscription.succeed(value);
+    }
+
+    static Consumer<EconomySubscriber<Boolean>> failing(EconomyFailureReason reason) {
+        return subscription -> subscription.fail(new EconomyException(reason));
+    }
+
+    @AfterEach
+    void cleanup() {
+        ServiceRegistry.INSTANCE.unregisterAll("test");
+    }
+
+    @Test
+    void testStalledPrimaryFailsOverAndOpens() throws Exception {
+        TestEconomy primary = new TestEconomy(subscription -> {
+            // never answers
+        });
+        TestEconomy secondary = new TestEconomy(answering(true));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.HIGH
+        );
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                secondary,
+                "test",
+                ServicePriority.NORMAL
+        );
+        Service<EconomyProvider> primaryService = ServiceRegistry.INSTANCE
+                .serviceFor(EconomyProvider.class)
+                .get();
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withCallTimeout(50, TimeUnit.MILLISECONDS)
+                .withFailureRate(50, 4, 2)
+                .withOpenDuration(1, TimeUnit.HOURS)
+                .build();
+
+        Assertions.assertTrue(hasPlayerAccount(economy));
+        Assertions.assertTrue(hasPlayerAccount(economy));
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.OPEN,
+                economy.getCircuitState(primaryService)
+        );
+
+        // the open circuit keeps requests away from the primary
+        Assertions.assertTrue(hasPlayerAccount(economy));
+        Assertions.assertEquals(2, primary.calls.get());
+        Assertions.assertEquals(3, secondary.calls.get());
+
+        // and fails those which can't go elsewhere right away
+        EconomyException error = Assertions.assertThrows(EconomyException.class, () -> {
+            try {
+                EconomySubscriber
+                        .<PlayerAccount>asFuture(s -> economy.createPlayerAccount(UUID.randomUUID(),
+                                s
+                        ))
+                        .get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        });
+        Assertions.assertEquals(EconomyFailureReason.OTHER_FAILURE, error.getReason());
+        Assertions.assertEquals(2, primary.calls.get());
+    }
+
+    @Test
+    void testHalfOpenProbeClosesCircuit() throws Exception {
+        TestEconomy primary = new TestEconomy(failing(EconomyFailureReason.OTHER_FAILURE));
+        TestEconomy secondary = new TestEconomy(answering(false));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.HIGH
+        );
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                secondary,
+                "test",
+                ServicePriority.LOW
+        );
+        Service<EconomyProvider> primaryService = ServiceRegistry.INSTANCE
+                .serviceFor(EconomyProvider.class)
+                .get();
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withFailureRate(100, 1, 1)
+                .withOpenDuration(50, TimeUnit.MILLISECONDS)
+                .build();
+
+        Assertions.assertFalse(hasPlayerAccount(economy));
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.OPEN,
+                economy.getCircuitState(primaryService)
+        );
+
+        primary.answer = answering(true);
+        Thread.sleep(100);
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.HALF_OPEN,
+                economy.getCircuitState(primaryService)
+        );
+        Assertions.assertTrue(hasPlayerAccount(economy));
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.CLOSED,
+                economy.getCircuitState(primaryService)
+        );
+    }
+
+    @Test
+    void testOnlyTheProbeEndsHalfOpen() throws Exception {
+        List<EconomySubscriber<Boolean>> pending = new CopyOnWriteArrayList<>();
+        TestEconomy primary = new TestEconomy(pending::add);
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.NORMAL
+        );
+        Service<EconomyProvider> primaryService = ServiceRegistry.INSTANCE
+                .serviceFor(EconomyProvider.class)
+                .get();
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withCallTimeout(0, TimeUnit.SECONDS)
+                .withFailureRate(100, 1, 1)
+                .withOpenDuration(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        // admitted while closed, answered only once the circuit is half open
+        CompletableFuture<Boolean> stale = EconomySubscriber.asFuture(s -> economy.hasPlayerAccount(
+                UUID.randomUUID(),
+                s
+        ));
+        primary.answer = failing(EconomyFailureReason.OTHER_FAILURE);
+        Assertions.assertThrows(Exception.class, () -> hasPlayerAccount(economy));
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.OPEN,
+                economy.getCircuitState(primaryService)
+        );
+
+        Thread.sleep(600);
+        primary.answer = pending::add;
+        CompletableFuture<Boolean> probe = EconomySubscriber.asFuture(s -> economy.hasPlayerAccount(
+                UUID.randomUUID(),
+                s
+        ));
+        Assertions.assertEquals(2, pending.size());
+
+        pending.get(0).succeed(true);
+        Assertions.assertTrue(stale.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.HALF_OPEN,
+                economy.getCircuitState(primaryService)
+        );
+
+        pending.get(1).succeed(true);
+        Assertions.assertTrue(probe.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.CLOSED,
+                economy.getCircuitState(primaryService)
+        );
+    }
+
+    @Test
+    void testUnansweredProbeReopensCircuit() throws Exception {
+        List<EconomySubscriber<Boolean>> pending = new CopyOnWriteArrayList<>();
+        TestEconomy primary = new TestEconomy(failing(EconomyFailureReason.OTHER_FAILURE));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.NORMAL
+        );
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withCallTimeout(0, TimeUnit.SECONDS)
+                .withFailureRate(100, 1, 1)
+                .withOpenDuration(50, TimeUnit.MILLISECONDS)
+                .build();
+
+        Assertions.assertThrows(Exception.class, () -> hasPlayerAccount(economy));
+        Thread.sleep(100);
+        primary.answer = pending::add;
+        CompletableFuture<Boolean> probe = EconomySubscriber.asFuture(s -> economy.hasPlayerAccount(
+                UUID.randomUUID(),
+                s
+        ));
+        Assertions.assertEquals(1, pending.size());
+
+        // the probe which never answers gives the circuit back, so another request probes
+        // once it could have opened again, while the first one keeps waiting
+        Thread.sleep(200);
+        EconomySubscriber.<Boolean>asFuture(s -> economy.hasPlayerAccount(UUID.randomUUID(), s));
+        Assertions.assertEquals(2, pending.size());
+        Assertions.assertFalse(probe.isDone());
+    }
+
+    @Test
+    void testTimeoutCoversProvidersAnsweringBeforeReturning() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        TestEconomy primary = new TestEconomy(subscription -> {
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscription.succeed(false);
+        });
+        TestEconomy secondary = new TestEconomy(answering(true));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.HIGH
+        );
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                secondary,
+                "test",
+                ServicePriority.NORMAL
+        );
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withCallTimeout(50, TimeUnit.MILLISECONDS)
+                .build();
+
+        // the primary blocks the thread asking it, so the request is made from another one
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Thread caller = new Thread(() -> economy.hasPlayerAccount(UUID.randomUUID(),
+                new EconomySubscriber<Boolean>() {
+                    @Override
+                    public void succeed(@NotNull Boolean value) {
+                        result.complete(value);
+                    }
+
+                    @Override
+                    public void fail(@NotNull EconomyException exception) {
+                        result.completeExceptionally(exception);
+                    }
+                }
+        ));
+        caller.start();
+        try {
+            Assertions.assertTrue(result.get(2, TimeUnit.SECONDS));
+        } finally {
+            released.countDown();
+            caller.join();
+        }
+    }
+
+    @Test
+    void testBulkReadsHaveNoCallTimeout() throws Exception {
+        UUID player = UUID.randomUUID();
+        TestEconomy primary = new TestEconomy(answering(true)) {
+            @Override
+            public void retrieveBalances(
+                    @NotNull Collection<UUID> playerIds,
+                    @NotNull Currency currency,
+                    @NotNull EconomySubscriber<Map<UUID, BigDecimal>> subscription
+            ) {
+                calls.incrementAndGet();
+                // far past both the call timeout and the slow call threshold
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    subscription.succeed(Collections.singletonMap(player, BigDecimal.ONE));
+                }).start();
+            }
+        };
+        TestEconomy secondary = new TestEconomy(answering(true));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.HIGH
+        );
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                secondary,
+                "test",
+                ServicePriority.LOW
+        );
+        Service<EconomyProvider> primaryService = ServiceRegistry.INSTANCE
+                .serviceFor(EconomyProvider.class)
+                .get();
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withCallTimeout(50, TimeUnit.MILLISECONDS)
+                .withSlowCallThreshold(20, TimeUnit.MILLISECONDS)
+                .withFailureRate(100, 1, 1)
+                .build();
+
+        Map<UUID, BigDecimal> balances = EconomySubscriber
+                .<Map<UUID, BigDecimal>>asFuture(s -> economy.retrieveBalances(
+                        Collections.singletonList(player),
+                        Mockito.mock(Currency.class),
+                        s
+                ))
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(BigDecimal.ONE, balances.get(player));
+        Assertions.assertEquals(0, secondary.calls.get());
+        Assertions.assertEquals(FailoverEconomyProvider.CircuitState.CLOSED,
+                economy.getCircuitState(primaryService)
+        );
+    }
+
+    @Test
+    void testAnswersAreNotFailures() throws Exception {
+        TestEconomy primary = new TestEconomy(failing(EconomyFailureReason.ACCOUNT_NOT_FOUND));
+        TestEconomy secondary = new TestEconomy(answering(true));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                primary,
+                "test",
+                ServicePriority.HIGH
+        );
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                secondary,
+                "test",
+                ServicePriority.LOW
+        );
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider
+                .builder()
+                .withFailureRate(100, 1, 1)
+                .build();
+
+        Assertions.assertThrows(Exception.class, () -> hasPlayerAccount(economy));
+        Assertions.assertThrows(Exception.class, () -> hasPlayerAccount(economy));
+        Assertions.assertEquals(2, primary.calls.get());
+        Assertions.assertEquals(0, secondary.calls.get());
+    }
+
+    @Test
+    void testSnapshotServedWhenNoProviderIsHealthy() throws Exception {
+        TestEconomy only = new TestEconomy(answering(true));
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                only,
+                "test",
+                ServicePriority.NORMAL
+        );
+
+        FailoverEconomyProvider economy = FailoverEconomyProvider.builder().build();
+        UUID player = UUID.randomUUID();
+        Assertions.assertTrue(EconomySubscriber
+                .<Boolean>asFuture(s -> economy.hasPlayerAccount(player, s))
+                .get(5, TimeUnit.SECONDS));
+
+        only.answer = failing(EconomyFailureReason.OTHER_FAILURE);
+        Assertions.assertTrue(EconomySubscriber
+                .<Boolean>asFuture(s -> economy.hasPlayerAccount(player, s))
+                .get(5, TimeUnit.SECONDS));
+        // nothing to fall back to for other requests
+        Assertions.assertThrows(Exception.class, () -> hasPlayerAccount(economy));
+    }
+
+}
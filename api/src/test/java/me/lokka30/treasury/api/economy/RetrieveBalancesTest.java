@@ -0,0 +1,201 @@
+package me.lokka30.treasury.api.economy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.response.EconomyException;
+import me.lokka30.treasury.api.economy.response.EconomyFailureReason;
+import me.lokka30.treasury.api.economy.response.EconomySubscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+class RetrieveBalancesTest {
+
+    // A provider where every player with an even index has an account holding their index.
+    // Retrieving the account of anyone else fails, as it would with a provider which doesn't
+    // report ACCOUNT_NOT_FOUND for them.
+    static EconomyProvider economy(List<UUID> players, ExecutorService executor) {
+        Map<UUID, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < players.size(); i++) {
+            indexes.put(players.get(i), i);
+        }
+        EconomyProvider provider = Mockito.mock(EconomyProvider.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doAnswer(invocation -> {
+            UUID playerId = invocation.getArgument(0);
+            EconomySubscriber<Boolean> subscription = invocation.getArgument(1);
+            Runnable answer = () -> subscription.succeed(indexes.get(playerId) % 2 == 0);
+            if (executor == null) {
+                answer.run();
+            } else {
+                executor.execute(answer);
+            }
+            return null;
+        }).when(provider).hasPlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.doAnswer(invocation -> {
+            UUID playerId = invocation.getArgument(0);
+            EconomySubscriber<PlayerAccount> subscription = invocation.getArgument(1);
+            Runnable answer = () -> {
+                int index = indexes.get(playerId);
+                if (index % 2 != 0) {
+                    subscription.fail(new EconomyException(EconomyFailureReason.OTHER_FAILURE));
+                    return;
+                }
+                PlayerAccount account = Mockito.mock(PlayerAccount.class);
+                Mockito.doAnswer(balanceInvocation -> {
+                    EconomySubscriber<BigDecimal> balanceSubscription = balanceInvocation.getArgument(
+                            1);
+                    balanceSubscription.succeed(BigDecimal.valueOf(index));
+                    return null;
+                }).when(account).retrieveBalance(ArgumentMatchers.any(), ArgumentMatchers.any());
+                subscription.succeed(account);
+            };
+            if (executor == null) {
+                answer.run();
+            } else {
+                executor.execute(answer);
+            }
+            return null;
+        }).when(provider).retrievePlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+        return provider;
+    }
+
+    static List<UUID> players(int count) {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            players.add(UUID.randomUUID());
+        }
+        return players;
+    }
+
+    static Map<UUID, BigDecimal> retrieveBalances(EconomyProvider provider, Collection<UUID> players)
+            throws Exception {
+        Currency currency = Mockito.mock(Currency.class);
+        return EconomySubscriber
+                .<Map<UUID, BigDecimal>>asFuture(s -> provider.retrieveBalances(players,
+                        currency,
+                        s
+                ))
+                .get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testBoundedConcurrency() throws Exception {
+        List<UUID> players = players(500);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            EconomyProvider base = economy(players, executor);
+            EconomyProvider provider = Mockito.mock(EconomyProvider.class,
+                    Mockito.CALLS_REAL_METHODS
+            );
+            Mockito.doAnswer(invocation -> {
+                int now = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(now, Math::max);
+                EconomySubscriber<Boolean> subscription = invocation.getArgument(1);
+                base.hasPlayerAccount(invocation.getArgument(0), new EconomySubscriber<Boolean>() {
+                    @Override
+                    public void succeed(Boolean hasAccount) {
+                        inFlight.decrementAndGet();
+                        subscription.succeed(hasAccount);
+                    }
+
+                    @Override
+                    public void fail(EconomyException exception) {
+                        inFlight.decrementAndGet();
+                        subscription.fail(exception);
+                    }
+                });
+                return null;
+            }).when(provider).hasPlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+            Mockito.doAnswer(invocation -> {
+                base.retrievePlayerAccount(invocation.getArgument(0), invocation.getArgument(1));
+                return null;
+            }).when(provider).retrievePlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+            Map<UUID, BigDecimal> balances = retrieveBalances(provider, players);
+            Assertions.assertEquals(250, balances.size());
+            for (int i = 0; i < players.size(); i += 2) {
+                Assertions.assertEquals(BigDecimal.valueOf(i), balances.get(players.get(i)));
+            }
+            Assertions.assertTrue(maxInFlight.get() <= BalanceFanOut.CONCURRENCY,
+                    "max in flight " + maxInFlight.get()
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSynchronousProviderDoesNotRecurse() throws Exception {
+        List<UUID> players = players(4_000);
+        Map<UUID, BigDecimal> balances = retrieveBalances(economy(players, null), players);
+        Assertions.assertEquals(2_000, balances.size());
+    }
+
+    @Test
+    void testFailedPlayersAreLeftOut() throws Exception {
+        List<UUID> players = players(100);
+        EconomyProvider base = economy(players, null);
+        EconomyProvider provider = Mockito.mock(EconomyProvider.class, Mockito.CALLS_REAL_METHODS);
+        // everyone has an account, so retrieving the account of odd players fails
+        Mockito.doAnswer(invocation -> {
+            EconomySubscriber<Boolean> subscription = invocation.getArgument(1);
+            subscription.succeed(true);
+            return null;
+        }).when(provider).hasPlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.doAnswer(invocation -> {
+            base.retrievePlayerAccount(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(provider).retrievePlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        Map<UUID, BigDecimal> balances = retrieveBalances(provider, players);
+        Assertions.assertEquals(50, balances.size());
+        for (int i = 0; i < players.size(); i += 2) {
+            Assertions.assertEquals(BigDecimal.valueOf(i), balances.get(players.get(i)));
+        }
+    }
+
+    @Test
+    void testFailureOfEveryPlayerFailsRequest() {
+        EconomyProvider provider = Mockito.mock(EconomyProvider.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doAnswer(invocation -> {
+            EconomySubscriber<Boolean> subscription = invocation.getArgument(1);
+            subscription.succeed(true);
+            return null;
+        }).when(provider).hasPlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.doAnswer(invocation -> {
+            EconomySubscriber<PlayerAccount> subscription = invocation.getArgument(1);
+            subscription.fail(new EconomyException(EconomyFailureReason.OTHER_FAILURE));
+            return null;
+        }).when(provider).retrievePlayerAccount(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class,
+                () -> retrieveBalances(provider, players(100))
+        );
+        Assertions.assertEquals(EconomyFailureReason.OTHER_FAILURE,
+                ((EconomyException) error.getCause()).getReason()
+        );
+    }
+
+    @Test
+    void testNoPlayers() throws Exception {
+        Assertions.assertTrue(retrieveBalances(economy(new ArrayList<>(), null),
+                new ArrayList<>()
+        ).isEmpty());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of subscriber chains which complete asynchronously, like {@code AsyncCompletionDeepTest}
+ * does: every subscriber hands back a {@link Completion} which another thread completes, so
+ * every link of the chain resumes on a different thread. {@code join} measures
+ * {@link Completion#join(Completion...)} over as many already running completions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionChainBenchmark {
+
+    static class Event {
+
+    }
+
+    @Param({"1", "10", "100"})
+    public int length;
+
+    private ExecutorService async;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        async = Executors.newFixedThreadPool(2);
+        for (int i = 0; i < length; i++) {
+            EventBus.INSTANCE.subscribe(EventSubscriber.functional(
+                    Event.class,
+                    EventPriority.NORMAL,
+                    (Event event) -> completeLater()
+            ));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        async.shutdown();
+    }
+
+    private Completion completeLater() {
+        Completion completion = new Completion();
+        async.execute(completion::complete);
+        return completion;
+    }
+
+    @Benchmark
+    public FireCompletion<Event> chain() {
+        FireCompletion<Event> completion = EventBus.INSTANCE.fire(new Event());
+        completion.waitCompletion();
+        return completion;
+    }
+
+    @Benchmark
+    public Completion join() {
+        Completion[] completions = new Completion[length];
+        for (int i = 0; i < length; i++) {
+            completions[i] = completeLater();
+        }
+        Completion joined = Completion.join(completions);
+        joined.waitCompletion();
+        return joined;
+    }
+
+}
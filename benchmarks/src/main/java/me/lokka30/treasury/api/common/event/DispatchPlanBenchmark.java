@@ -0,0 +1,83 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-fire dispatch work of cached {@link DispatchPlan DispatchPlans} against the
+ * previous walk over the event hierarchy. Subscribers are spread over the fired class, its
+ * superclass and an interface it implements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchPlanBenchmark {
+
+    interface TaggedEvent {
+
+    }
+
+    static class BaseEvent {
+
+    }
+
+    static class Event extends BaseEvent implements TaggedEvent {
+
+    }
+
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+
+    @Param({"1", "10", "100"})
+    public int subscribers;
+
+    private final LegacyDispatcher legacy = new LegacyDispatcher();
+    private final Event event = new Event();
+    private long calls;
+
+    @Setup
+    public void setup() {
+        Class<?>[] targets = {Event.class, BaseEvent.class, TaggedEvent.class};
+        for (int i = 0; i < subscribers; i++) {
+            EventSubscriber<?> subscriber = subscriber(
+                    targets[i % targets.length],
+                    PRIORITIES[i % PRIORITIES.length]
+            );
+            EventBus.INSTANCE.subscribe(subscriber);
+            legacy.subscribe(subscriber);
+        }
+    }
+
+    private <T> EventSubscriber<T> subscriber(Class<T> eventClass, EventPriority priority) {
+        return SimpleEventSubscriber.functional(eventClass, priority, (T event) -> {
+            calls++;
+        });
+    }
+
+    @Benchmark
+    public Completion dispatchPlan() {
+        return EventBus.INSTANCE.planFor(Event.class).call(event);
+    }
+
+    @Benchmark
+    public Completion legacyLookup() {
+        return legacy.fire(event);
+    }
+
+}
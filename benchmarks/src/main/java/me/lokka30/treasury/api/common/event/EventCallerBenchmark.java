@@ -0,0 +1,97 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.misc.SortedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares registering into and walking the copy-on-write subscriber array of
+ * {@link EventCaller} against the {@link SortedList} it used to keep its subscribers in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCallerBenchmark {
+
+    static class Event {
+
+    }
+
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+
+    @Param({"10", "100", "1000"})
+    public int subscribers;
+
+    private EventSubscriber<Event>[] toRegister;
+    private EventCaller caller;
+    private List<EventSubscriber> sortedList;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        toRegister = new EventSubscriber[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            toRegister[i] = SimpleEventSubscriber.functional(
+                    Event.class,
+                    PRIORITIES[i % PRIORITIES.length],
+                    (Event event) -> {
+                    }
+            );
+        }
+        caller = copyOnWriteRegister();
+        sortedList = sortedListRegister();
+    }
+
+    @Benchmark
+    public EventCaller copyOnWriteRegister() {
+        EventCaller caller = new EventCaller(Event.class);
+        for (EventSubscriber<Event> subscriber : toRegister) {
+            caller.register(subscriber);
+        }
+        return caller;
+    }
+
+    @Benchmark
+    public List<EventSubscriber> sortedListRegister() {
+        List<EventSubscriber> list = new SortedList<>();
+        for (EventSubscriber<Event> subscriber : toRegister) {
+            list.add(subscriber);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public void copyOnWriteWalk(Blackhole blackhole) {
+        EventSubscriber[] snapshot = caller.getSubscriptions();
+        for (int i = 0; i < snapshot.length; i++) {
+            blackhole.consume(snapshot[i]);
+        }
+    }
+
+    @Benchmark
+    public void sortedListWalk(Blackhole blackhole) {
+        for (int i = 0; i < sortedList.size(); i++) {
+            blackhole.consume(sortedList.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fires 10k events at once to a subscriber which blocks for a millisecond, like a provider
+ * querying a database would, and measures how long it takes until all of them are done, once
+ * on the event pool and once on virtual threads. The {@code platformThreads} counter reports
+ * the peak amount of platform threads the JVM had.
+ * <p>
+ * Every {@code mode} runs in its own fork, since the executor is picked once per JVM. On JVMs
+ * older than 21 both modes use the pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+    static final class Event {
+
+    }
+
+    private static final int FIRES = 10_000;
+
+    @Param({"pool", "virtual"})
+    public String mode;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Threads {
+
+        public long platformThreads;
+
+    }
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty(EventExecutorTracker.EXECUTOR_PROPERTY, mode);
+        EventBus.INSTANCE.subscribe(EventBus.INSTANCE
+                .subscriptionFor(Event.class)
+                .whenCalled(event -> {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .completeSubscription());
+        threads.resetPeakThreadCount();
+    }
+
+    @Benchmark
+    public void fire10k(Threads counters) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(FIRES);
+        for (int i = 0; i < FIRES; i++) {
+            EventBus.INSTANCE.fire(new Event()).whenComplete((event, errors) -> done.countDown());
+        }
+        done.await();
+        counters.platformThreads = threads.getPeakThreadCount();
+    }
+
+}
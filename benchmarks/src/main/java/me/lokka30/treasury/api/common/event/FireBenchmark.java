@@ -0,0 +1,96 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end cost of firing an event and waiting for it: throughput and the latency
+ * distribution, by subscriber count, for plain and {@link Cancellable} events. {@code fire}
+ * includes the executor hop, {@code fireSync} only the dispatch itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FireBenchmark {
+
+    static class PlainEvent {
+
+    }
+
+    static class CancellableEvent implements Cancellable {
+
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(final boolean cancel) {
+            this.cancelled = cancel;
+        }
+
+    }
+
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+
+    @Param({"1", "10", "100"})
+    public int subscribers;
+
+    @Param({"false", "true"})
+    public boolean cancellable;
+
+    private Object event;
+
+    @Setup
+    public void setup() {
+        Class<?> eventClass = cancellable ? CancellableEvent.class : PlainEvent.class;
+        for (int i = 0; i < subscribers; i++) {
+            // every other subscriber skips cancelled events, so the cancelled check is done
+            EventBus.INSTANCE.subscribe(subscriber(
+                    eventClass,
+                    PRIORITIES[i % PRIORITIES.length],
+                    i % 2 == 0
+            ));
+        }
+        event = cancellable ? new CancellableEvent() : new PlainEvent();
+    }
+
+    private static <T> EventSubscriber<T> subscriber(
+            Class<T> eventClass, EventPriority priority, boolean ignoreCancelled
+    ) {
+        return SimpleEventSubscriber.functional(eventClass, priority, ignoreCancelled, (T e) -> {
+        });
+    }
+
+    @Benchmark
+    public FireCompletion<Object> fire() {
+        FireCompletion<Object> completion = EventBus.INSTANCE.fire(event);
+        completion.waitCompletion();
+        return completion;
+    }
+
+    @Benchmark
+    public FireCompletion<Object> fireSync() {
+        return EventBus.INSTANCE.fireSync(event);
+    }
+
+}
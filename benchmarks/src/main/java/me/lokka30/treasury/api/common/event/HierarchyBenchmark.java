@@ -0,0 +1,83 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of firing an event whose subscribers are spread over a class hierarchy, like
+ * {@code EventHierarchyTest} does, by hierarchy depth. One subscriber listens on every level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HierarchyBenchmark {
+
+    static class Level1 {
+
+    }
+
+    static class Level2 extends Level1 {
+
+    }
+
+    static class Level3 extends Level2 {
+
+    }
+
+    static class Level4 extends Level3 {
+
+    }
+
+    static class Level5 extends Level4 {
+
+    }
+
+    static class Level6 extends Level5 {
+
+    }
+
+    private static final Class<?>[] LEVELS = {
+            Level1.class, Level2.class, Level3.class, Level4.class, Level5.class, Level6.class
+    };
+
+    @Param({"1", "3", "6"})
+    public int depth;
+
+    private Object event;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        for (int i = 0; i < depth; i++) {
+            EventBus.INSTANCE.subscribe(subscriber(LEVELS[i]));
+        }
+        event = LEVELS[depth - 1].getDeclaredConstructor().newInstance();
+    }
+
+    private static <T> EventSubscriber<T> subscriber(Class<T> eventClass) {
+        return SimpleEventSubscriber.functional(eventClass, EventPriority.NORMAL, (T e) -> {
+        });
+    }
+
+    @Benchmark
+    public FireCompletion<Object> fireSync() {
+        return EventBus.INSTANCE.fireSync(event);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.misc.SortedList;
+
+/**
+ * A copy of the lookup and call path {@link EventBus#fire(Object)} used before dispatch plans
+ * were introduced, kept as the baseline for {@link DispatchPlanBenchmark}. Executor hops are
+ * left out so only the dispatch work itself is measured.
+ */
+final class LegacyDispatcher {
+
+    private final Map<Class<?>, List<EventSubscriber>> events = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Class<?>>> friends = new HashMap<>();
+
+    void subscribe(EventSubscriber<?> subscriber) {
+        events.computeIfAbsent(subscriber.eventClass(), k -> new SortedList<>()).add(subscriber);
+    }
+
+    Completion fire(Object event) {
+        List<Class<?>> friends = getFriendsOf(event.getClass());
+        List<Completion> completions = new ArrayList<>();
+        List<EventSubscriber> caller = events.get(event.getClass());
+        if (caller != null) {
+            completions.add(call(caller, event));
+        }
+        for (Class<?> friend : friends) {
+            List<EventSubscriber> friendCaller = events.get(friend);
+            if (friendCaller != null) {
+                completions.add(call(friendCaller, event));
+            }
+        }
+        return Completion.join(completions.toArray(new Completion[0]));
+    }
+
+    private List<Class<?>> getFriendsOf(Class<?> eventType) {
+        if (friends.containsKey(eventType)) {
+            return Collections.unmodifiableList(friends.get(eventType));
+        }
+        Set<Class<?>> types = new LinkedHashSet<>();
+        collect(eventType, types);
+        types.remove(eventType);
+        types.remove(Object.class);
+        types.remove(Cancellable.class);
+        friends.put(eventType, new ArrayList<>(types));
+        return friends.get(eventType);
+    }
+
+    private static void collect(Class<?> type, Set<Class<?>> into) {
+        if (type == null || !into.add(type)) {
+            return;
+        }
+        collect(type.getSuperclass(), into);
+        for (Class<?> anInterface : type.getInterfaces()) {
+            collect(anInterface, into);
+        }
+    }
+
+    private static Completion call(List<EventSubscriber> subscriptions, Object event) {
+        if (subscriptions.isEmpty()) {
+            return Completion.completed();
+        }
+        List<Throwable> errors = call(subscriptions, event, new ArrayList<>(), 0);
+        return errors.isEmpty() ? Completion.completed() : Completion.completedExceptionally(errors);
+    }
+
+    private static List<Throwable> call(
+            List<EventSubscriber> subscriptions,
+            Object event,
+            List<Throwable> errorsToThrow,
+            int startIndex
+    ) {
+        for (int i = startIndex; i < subscriptions.size(); i++) {
+            EventSubscriber subscriber = subscriptions.get(i);
+            if (event instanceof Cancellable) {
+                if (((Cancellable) event).isCancelled() && subscriber.ignoreCancelled()) {
+                    continue;
+                }
+            }
+            final int nextStart = i + 1;
+            subscriber.onEvent(event).whenComplete(errors -> {
+                if (!errors.isEmpty()) {
+                    errorsToThrow.addAll(errors);
+                    return;
+                }
+
+                call(subscriptions, event, errorsToThrow, nextStart);
+            });
+            break;
+        }
+        return errorsToThrow;
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.event;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of dispatch tracing: the same fires with tracing off and on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingBenchmark {
+
+    static class TracedEvent {
+
+    }
+
+    @Param({"false", "true"})
+    public boolean tracing;
+
+    private final TracedEvent event = new TracedEvent();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < 10; i++) {
+            EventBus.INSTANCE.subscribe(SimpleEventSubscriber.functional(TracedEvent.class,
+                    EventPriority.NORMAL,
+                    false,
+                    (TracedEvent e) -> {
+                    }
+            ));
+        }
+        EventBus.INSTANCE.setTracingEnabled(tracing);
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.INSTANCE.setTracingEnabled(false);
+    }
+
+    @Benchmark
+    public FireCompletion<TracedEvent> fire() {
+        FireCompletion<TracedEvent> completion = EventBus.INSTANCE.fire(event);
+        completion.waitCompletion();
+        return completion;
+    }
+
+    @Benchmark
+    public FireCompletion<TracedEvent> fireSync() {
+        return EventBus.INSTANCE.fireSync(event);
+    }
+
+}
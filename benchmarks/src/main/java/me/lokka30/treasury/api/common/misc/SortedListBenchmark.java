@@ -0,0 +1,85 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.misc;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link java.util.LinkedList} backed {@link SortedList} with the array backed
+ * {@link SortedArrayList}: filling a list with {@code size} random elements, and walking it by
+ * index the way subscriber chains used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedListBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private Integer[] values;
+    private List<Integer> linked;
+    private List<Integer> array;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(size);
+        }
+        linked = fill(new SortedList<>());
+        array = fill(new SortedArrayList<>());
+    }
+
+    private List<Integer> fill(List<Integer> list) {
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> sortedListInsert() {
+        return fill(new SortedList<>());
+    }
+
+    @Benchmark
+    public List<Integer> sortedArrayListInsert() {
+        return fill(new SortedArrayList<>());
+    }
+
+    @Benchmark
+    public void sortedListIndexedWalk(Blackhole blackhole) {
+        for (int i = 0; i < linked.size(); i++) {
+            blackhole.consume(linked.get(i));
+        }
+    }
+
+    @Benchmark
+    public void sortedArrayListIndexedWalk(Blackhole blackhole) {
+        for (int i = 0; i < array.size(); i++) {
+            blackhole.consume(array.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up the primary service of a class with {@code registrations} services registered, from
+ * several threads at once the way consumers do on hot paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ServiceRegistryBenchmark {
+
+    public interface BenchService {
+
+    }
+
+    @Param({"1", "5"})
+    public int registrations;
+
+    @Setup
+    public void setup() {
+        ServicePriority[] priorities = ServicePriority.values();
+        for (int i = 0; i < registrations; i++) {
+            ServiceRegistry.INSTANCE.registerService(BenchService.class,
+                    new BenchService() {
+                    },
+                    "benchmark",
+                    priorities[i % priorities.length]
+            );
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceRegistry.INSTANCE.unregisterAll("benchmark");
+    }
+
+    @Benchmark
+    public Optional<Service<BenchService>> serviceFor() {
+        return ServiceRegistry.INSTANCE.serviceFor(BenchService.class);
+    }
+
+}
@@ -17,6 +17,7 @@ import me.lokka30.treasury.plugin.core.command.subcommand.HelpSubcommand;
 import me.lokka30.treasury.plugin.core.command.subcommand.InfoSubcommand;
 import me.lokka30.treasury.plugin.core.command.subcommand.ReloadSubcommand;
 import me.lokka30.treasury.plugin.core.command.subcommand.economy.EconomySubcommand;
+import me.lokka30.treasury.plugin.core.command.subcommand.events.EventsSubcommand;
 import me.lokka30.treasury.plugin.core.config.messaging.Message;
 import me.lokka30.treasury.plugin.core.config.messaging.MessageKey;
 import me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder;
@@ -41,6 +42,7 @@ public final class TreasuryBaseCommand {
         registerSubcommand("reload", new ReloadSubcommand());
         registerSubcommand("downloadLatest", new DownloadLatestSubcommand());
         registerSubcommand("economy", new EconomySubcommand());
+        registerSubcommand("events", new EventsSubcommand());
     }
 
     /**
@@ -98,7 +100,8 @@ public final class TreasuryBaseCommand {
             "info",
             "reload",
             "downloadLatest",
-            "economy"
+            "economy",
+            "events"
     );
 
     /**
@@ -13,6 +13,7 @@ import java.util.concurrent.Phaser;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import me.lokka30.treasury.api.common.service.ServiceHandle;
 import me.lokka30.treasury.api.common.service.ServiceRegistry;
 import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.api.economy.account.Account;
@@ -24,6 +25,8 @@ import org.jetbrains.annotations.NotNull;
 
 interface AccountMigrator<T extends Account> {
 
+    ServiceHandle<EconomyProvider> ECONOMY = ServiceRegistry.INSTANCE.handleFor(EconomyProvider.class);
+
     @NotNull String getBulkFailLog(@NotNull Throwable throwable);
 
     @NotNull String getInitLog(@NotNull String identifier);
@@ -63,16 +66,13 @@ interface AccountMigrator<T extends Account> {
         fromCurrencies.thenAccept(currenciesIDS -> {
 
             Collection<Currency> currencies = currenciesIDS.stream().map(identifier -> {
-                if (ServiceRegistry.INSTANCE.hasRegistration(EconomyProvider.class)) {
+                EconomyProvider provider = ECONOMY.get();
+                if (provider == null) {
                     migration.debug(() -> "Economy provider is null.");
                     return null;
                 }
 
-                Optional<Currency> currency = ServiceRegistry.INSTANCE
-                        .serviceFor(EconomyProvider.class)
-                        .get()
-                        .get()
-                        .findCurrency(identifier);
+                Optional<Currency> currency = provider.findCurrency(identifier);
 
                 if (currency.isPresent()) {
                     return currency.get();
@@ -128,27 +128,26 @@ public class EconomyMigrateSub implements Subcommand {
 
         sender.sendMessage(Message.of(MessageKey.MIGRATE_STARTING_MIGRATION));
 
-        // Override economies with dummy economy that doesn't support any operations.
+        // Override economies with dummy economy that doesn't support any operations, and
+        // re-register economies to ensure target economy will override migrated economy.
+        // Done at once so nobody gets to see only part of it.
         MigrationEconomy dummyEconomy = new MigrationEconomy();
-        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
-                dummyEconomy,
-                "Treasury",
-                ServicePriority.HIGH
-        );
-
-        // Re-register economies to ensure target economy will override migrated economy.
-        ServiceRegistry.INSTANCE.unregister(EconomyProvider.class, from.get());
-        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
-                from.get(),
-                from.registrarName(),
-                ServicePriority.LOW
-        );
-        ServiceRegistry.INSTANCE.unregister(EconomyProvider.class, to.get());
-        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
-                to.get(),
-                to.registrarName(),
-                ServicePriority.HIGH
-        );
+        final Service<EconomyProvider> migrateFrom = from;
+        final Service<EconomyProvider> migrateTo = to;
+        ServiceRegistry.INSTANCE.transaction(tx -> tx
+                .registerService(EconomyProvider.class, dummyEconomy, "Treasury", ServicePriority.HIGH)
+                .unregister(EconomyProvider.class, migrateFrom.get())
+                .registerService(EconomyProvider.class,
+                        migrateFrom.get(),
+                        migrateFrom.registrarName(),
+                        ServicePriority.LOW
+                )
+                .unregister(EconomyProvider.class, migrateTo.get())
+                .registerService(EconomyProvider.class,
+                        migrateTo.get(),
+                        migrateTo.registrarName(),
+                        ServicePriority.HIGH
+                ));
 
         MigrationData migration = new MigrationData(from, to, debugEnabled);
 
@@ -0,0 +1,155 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.command.subcommand.events;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import me.lokka30.treasury.api.common.event.EventBus;
+import me.lokka30.treasury.api.common.event.EventBusStats;
+import me.lokka30.treasury.api.common.event.EventSubscriber;
+import me.lokka30.treasury.plugin.core.command.CommandSource;
+import me.lokka30.treasury.plugin.core.command.Subcommand;
+import me.lokka30.treasury.plugin.core.config.messaging.Message;
+import me.lokka30.treasury.plugin.core.config.messaging.MessageKey;
+import me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder;
+import me.lokka30.treasury.plugin.core.utils.Utils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder.placeholder;
+
+// "/treasury events stats [enable|disable|reset]"
+public class EventsStatsSub implements Subcommand {
+
+    private static final int MAX_LINES = 10;
+    private static final List<String> COMPLETIONS = Arrays.asList("enable", "disable", "reset");
+
+    @Override
+    public void execute(
+            @NotNull final CommandSource sender,
+            @NotNull final String label,
+            final @NotNull String[] args
+    ) {
+        if (!Utils.checkPermissionForCommand(sender, "treasury.command.treasury.events.stats")) {
+            return;
+        }
+
+        EventBus bus = EventBus.INSTANCE;
+        if (args.length == 1) {
+            switch (args[0].toLowerCase(Locale.ROOT)) {
+                case "enable":
+                    bus.setStatsEnabled(true);
+                    sender.sendMessage(Message.of(MessageKey.EVENTS_STATS_ENABLED));
+                    return;
+                case "disable":
+                    bus.setStatsEnabled(false);
+                    sender.sendMessage(Message.of(MessageKey.EVENTS_STATS_DISABLED));
+                    return;
+                case "reset":
+                    bus.resetStats();
+                    sender.sendMessage(Message.of(MessageKey.EVENTS_STATS_RESET));
+                    return;
+                default:
+                    break;
+            }
+        }
+        if (args.length != 0) {
+            sender.sendMessage(Message.of(
+                    MessageKey.EVENTS_STATS_INVALID_USAGE,
+                    MessagePlaceholder.placeholder("label", label)
+            ));
+            return;
+        }
+
+        EventBusStats stats = bus.getStats();
+        if (!stats.isEnabled() && stats.getEvents().isEmpty()) {
+            sender.sendMessage(Message.of(
+                    MessageKey.EVENTS_STATS_NOT_RECORDING,
+                    MessagePlaceholder.placeholder("label", label)
+            ));
+            return;
+        }
+
+        sender.sendMessage(Message.of(
+                MessageKey.EVENTS_STATS_HEADER,
+                placeholder("recording", Utils.getYesNoStateMessage(stats.isEnabled())),
+                placeholder("since",
+                        TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - stats.getSince())
+                )
+        ));
+
+        stats
+                .getEvents()
+                .stream()
+                .sorted(Comparator.comparingLong(EventBusStats.EventStats::getFires).reversed())
+                .limit(MAX_LINES)
+                .forEach(event -> sender.sendMessage(Message.of(
+                        MessageKey.EVENTS_STATS_EVENT,
+                        placeholder("event", event.getEventClass().getSimpleName()),
+                        placeholder("fires", event.getFires()),
+                        placeholder("errors", event.getErrors()),
+                        placeholder("in-flight", event.getInFlight()),
+                        placeholder("queued", event.getQueued()),
+                        placeholder("overflows", event.getOverflows()),
+                        placeholder("p50", micros(event.getLatency(), 50)),
+                        placeholder("p99", micros(event.getLatency(), 99)),
+                        placeholder("max", event.getLatency().getMax(TimeUnit.MICROSECONDS))
+                )));
+
+        stats
+                .getSubscribers()
+                .stream()
+                .sorted(Comparator
+                        .comparingLong((EventBusStats.SubscriberStats subscriber) -> subscriber
+                                .getLatency()
+                                .getPercentile(99, TimeUnit.NANOSECONDS))
+                        .reversed())
+                .limit(MAX_LINES)
+                .forEach(subscriber -> {
+                    EventSubscriber<?> eventSubscriber = subscriber.getSubscriber();
+                    sender.sendMessage(Message.of(
+                            MessageKey.EVENTS_STATS_SUBSCRIBER,
+                            placeholder("subscriber", eventSubscriber.getClass().getName()),
+                            placeholder("event", eventSubscriber.eventClass().getSimpleName()),
+                            placeholder("priority",
+                                    eventSubscriber.priority().name().toLowerCase(Locale.ROOT)
+                            ),
+                            placeholder("calls", subscriber.getCalls()),
+                            placeholder("errors", subscriber.getErrors()),
+                            placeholder("p50", micros(subscriber.getLatency(), 50)),
+                            placeholder("p99", micros(subscriber.getLatency(), 99)),
+                            placeholder("max",
+                                    subscriber.getLatency().getMax(TimeUnit.MICROSECONDS)
+                            )
+                    ));
+                });
+    }
+
+    private static long micros(@NotNull EventBusStats.Latency latency, double percentile) {
+        return latency.getPercentile(percentile, TimeUnit.MICROSECONDS);
+    }
+
+    @Nullable
+    @Override
+    public List<String> complete(
+            @NotNull final CommandSource source,
+            @NotNull final String label,
+            @NotNull final String[] args
+    ) {
+        if (args.length != 1) {
+            return Collections.emptyList();
+        }
+        return COMPLETIONS
+                .stream()
+                .filter(c -> c.startsWith(args[0].toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.command.subcommand.events;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import me.lokka30.treasury.api.common.event.EventBus;
+import me.lokka30.treasury.api.common.event.EventPriority;
+import me.lokka30.treasury.api.common.event.EventSubscriber;
+import me.lokka30.treasury.api.common.event.EventTrace;
+import me.lokka30.treasury.plugin.core.command.CommandSource;
+import me.lokka30.treasury.plugin.core.command.Subcommand;
+import me.lokka30.treasury.plugin.core.config.messaging.Message;
+import me.lokka30.treasury.plugin.core.config.messaging.MessageKey;
+import me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder;
+import me.lokka30.treasury.plugin.core.utils.Utils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder.placeholder;
+
+// "/treasury events trace [enable|disable|clear]"
+public class EventsTraceSub implements Subcommand {
+
+    private static final int MAX_LINES = 15;
+    private static final List<String> COMPLETIONS = Arrays.asList("enable", "disable", "clear");
+
+    @Override
+    public void execute(
+            @NotNull final CommandSource sender,
+            @NotNull final String label,
+            final @NotNull String[] args
+    ) {
+        if (!Utils.checkPermissionForCommand(sender, "treasury.command.treasury.events.trace")) {
+            return;
+        }
+
+        EventBus bus = EventBus.INSTANCE;
+        if (args.length == 1) {
+            switch (args[0].toLowerCase(Locale.ROOT)) {
+                case "enable":
+                    bus.setTracingEnabled(true);
+                    sender.sendMessage(Message.of(MessageKey.EVENTS_TRACE_ENABLED));
+                    return;
+                case "disable":
+                    bus.setTracingEnabled(false);
+                    sender.sendMessage(Message.of(MessageKey.EVENTS_TRACE_DISABLED));
+                    return;
+                case "clear":
+                    bus.clearTrace();
+                    sender.sendMessage(Message.of(MessageKey.EVENTS_TRACE_CLEARED));
+                    return;
+                default:
+                    break;
+            }
+        }
+        if (args.length != 0) {
+            sender.sendMessage(Message.of(
+                    MessageKey.EVENTS_TRACE_INVALID_USAGE,
+                    MessagePlaceholder.placeholder("label", label)
+            ));
+            return;
+        }
+
+        EventTrace trace = bus.getTrace();
+        List<EventTrace.Entry> entries = trace.getEntries();
+        if (!trace.isEnabled() && entries.isEmpty()) {
+            sender.sendMessage(Message.of(
+                    MessageKey.EVENTS_TRACE_NOT_TRACING,
+                    MessagePlaceholder.placeholder("label", label)
+            ));
+            return;
+        }
+
+        List<EventTrace.Entry> shown = entries.subList(
+                Math.max(0, entries.size() - MAX_LINES),
+                entries.size()
+        );
+        sender.sendMessage(Message.of(
+                MessageKey.EVENTS_TRACE_HEADER,
+                placeholder("tracing", Utils.getYesNoStateMessage(trace.isEnabled())),
+                placeholder("entries", entries.size()),
+                placeholder("capacity", trace.getCapacity()),
+                placeholder("shown", shown.size())
+        ));
+
+        for (EventTrace.Entry entry : shown) {
+            EventSubscriber<?> subscriber = entry.getSubscriber();
+            EventPriority priority = entry.getPriority();
+            Throwable error = entry.getError();
+            sender.sendMessage(Message.of(
+                    MessageKey.EVENTS_TRACE_ENTRY,
+                    placeholder("stage", entry.getStage().name().toLowerCase(Locale.ROOT)),
+                    placeholder("event", entry.getEventClass().getSimpleName()),
+                    placeholder("subscriber",
+                            subscriber == null ? "-" : subscriber.getClass().getName()
+                    ),
+                    placeholder("priority",
+                            priority == null ? "-" : priority.name().toLowerCase(Locale.ROOT)
+                    ),
+                    placeholder("duration", entry.getDuration(TimeUnit.MICROSECONDS)),
+                    placeholder("thread", entry.getThread()),
+                    placeholder("error", error == null ? "-" : error.toString())
+            ));
+        }
+    }
+
+    @Nullable
+    @Override
+    public List<String> complete(
+            @NotNull final CommandSource source,
+            @NotNull final String label,
+            @NotNull final String[] args
+    ) {
+        if (args.length != 1) {
+            return Collections.emptyList();
+        }
+        return COMPLETIONS
+                .stream()
+                .filter(c -> c.startsWith(args[0].toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toList());
+    }
+
+}
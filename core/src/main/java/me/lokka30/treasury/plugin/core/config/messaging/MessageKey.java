@@ -36,6 +36,24 @@ public enum MessageKey {
             "commands.treasury.subcommands.economy.info.economy-provider-unavailable"),
     ECONOMY_INFO_ECONOMY_PROVIDER_AVAILABLE(
             "commands.treasury.subcommands.economy.info.economy-provider-available"),
+    EVENTS_INVALID_USAGE_UNSPECIFIED(
+            "commands.treasury.subcommands.events.invalid-usage-unspecified"),
+    EVENTS_INVALID_USAGE_SPECIFIED("commands.treasury.subcommands.events.invalid-usage-specified"),
+    EVENTS_STATS_INVALID_USAGE("commands.treasury.subcommands.events.stats.invalid-usage"),
+    EVENTS_STATS_NOT_RECORDING("commands.treasury.subcommands.events.stats.not-recording"),
+    EVENTS_STATS_ENABLED("commands.treasury.subcommands.events.stats.enabled"),
+    EVENTS_STATS_DISABLED("commands.treasury.subcommands.events.stats.disabled"),
+    EVENTS_STATS_RESET("commands.treasury.subcommands.events.stats.reset"),
+    EVENTS_STATS_HEADER("commands.treasury.subcommands.events.stats.header"),
+    EVENTS_STATS_EVENT("commands.treasury.subcommands.events.stats.event"),
+    EVENTS_STATS_SUBSCRIBER("commands.treasury.subcommands.events.stats.subscriber"),
+    EVENTS_TRACE_INVALID_USAGE("commands.treasury.subcommands.events.trace.invalid-usage"),
+    EVENTS_TRACE_NOT_TRACING("commands.treasury.subcommands.events.trace.not-tracing"),
+    EVENTS_TRACE_ENABLED("commands.treasury.subcommands.events.trace.enabled"),
+    EVENTS_TRACE_DISABLED("commands.treasury.subcommands.events.trace.disabled"),
+    EVENTS_TRACE_CLEARED("commands.treasury.subcommands.events.trace.cleared"),
+    EVENTS_TRACE_HEADER("commands.treasury.subcommands.events.trace.header"),
+    EVENTS_TRACE_ENTRY("commands.treasury.subcommands.events.trace.entry"),
     HELP_INVALID_USAGE("commands.treasury.subcommands.help.invalid-usage"),
     HELP_AVAILABLE_COMMANDS("commands.treasury.subcommands.help.available-commands"),
     INFO_INVALID_USAGE("commands.treasury.subcommands.info.invalid-usage"),
@@ -190,6 +190,107 @@ public class Messages {
                     " &8&m->&b /treasury economy migrate &8- &7migrate from one economy provider to another."
             );
 
+            @Comment("Placeholders: %prefix%, %label%")
+            @Key("subcommands.events.invalid-usage-unspecified")
+            private List<String> eventsInvalidUsageUnspecified = Arrays.asList(
+                    "%prefix% Invalid usage - please specify a subcommand.",
+                    "%prefix% Available subcommands: '&b/%label% events stats&7', '&b/%label% events trace&7'."
+            );
+
+            @Comment("Placeholders: %prefix%, %label%, %subcommand%")
+            @Key("subcommands.events.invalid-usage-specified")
+            private List<String> eventsInvalidUsageSpecified = Arrays.asList(
+                    "%prefix% Invalid subcommand '&b%subcommand%&7'.",
+                    "%prefix% Available subcommands: '&b/%label% events stats&7', '&b/%label% events trace&7'."
+            );
+
+            @Comment("Placeholders: %prefix%, %label%")
+            @Key("subcommands.events.stats.invalid-usage")
+            private List<String> eventsStatsInvalidUsage = Collections.singletonList(
+                    "%prefix% Invalid usage, try '&b/%label% events stats [enable|disable|reset]&7'.");
+
+            @Comment("Placeholders: %prefix%, %label%")
+            @Key("subcommands.events.stats.not-recording")
+            private List<String> eventsStatsNotRecording = Collections.singletonList(
+                    "%prefix% Event stats are not being recorded. Start with '&b/%label% events stats enable&7'.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.events.stats.enabled")
+            private List<String> eventsStatsEnabled = Collections.singletonList(
+                    "%prefix% Event stats are now being recorded.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.events.stats.disabled")
+            private List<String> eventsStatsDisabled = Collections.singletonList(
+                    "%prefix% Event stats are no longer being recorded.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.events.stats.reset")
+            private List<String> eventsStatsReset = Collections.singletonList(
+                    "%prefix% Event stats have been reset.");
+
+            @Comment("Placeholders: %prefix%, %recording%, %since%")
+            @Key("subcommands.events.stats.header")
+            private List<String> eventsStatsHeader = Arrays.asList(
+                    "&f&nEvent Stats",
+                    "&8 &m->&7 Recording: &b%recording%&7, over the last &b%since%s",
+                    "&8 &m->&7 Latencies are in microseconds."
+            );
+
+            @Comment("Sent for each of the most fired events.")
+            @Comment("Placeholders: %prefix%, %event%, %fires%, %errors%, %in-flight%,")
+            @Comment("              %queued%, %overflows%, %p50%, %p99%, %max%")
+            @Key("subcommands.events.stats.event")
+            private List<String> eventsStatsEvent = Collections.singletonList(
+                    "&8 &m->&b %event%&7: &b%fires%&7 fires, &b%errors%&7 failed, &b%in-flight%&7 in flight, &b%queued%&7 queued, &b%overflows%&7 overflowed, p50 &b%p50%&7, p99 &b%p99%&7, max &b%max%");
+
+            @Comment("Sent for each of the slowest subscribers.")
+            @Comment("Placeholders: %prefix%, %subscriber%, %event%, %priority%, %calls%,")
+            @Comment("              %errors%, %p50%, %p99%, %max%")
+            @Key("subcommands.events.stats.subscriber")
+            private List<String> eventsStatsSubscriber = Collections.singletonList(
+                    "&8 &m->&7 %subscriber% &8(&7%event%, %priority%&8)&7: &b%calls%&7 calls, &b%errors%&7 failed, p50 &b%p50%&7, p99 &b%p99%&7, max &b%max%");
+
+            @Comment("Placeholders: %prefix%, %label%")
+            @Key("subcommands.events.trace.invalid-usage")
+            private List<String> eventsTraceInvalidUsage = Collections.singletonList(
+                    "%prefix% Invalid usage, try '&b/%label% events trace [enable|disable|clear]&7'.");
+
+            @Comment("Placeholders: %prefix%, %label%")
+            @Key("subcommands.events.trace.not-tracing")
+            private List<String> eventsTraceNotTracing = Collections.singletonList(
+                    "%prefix% Events are not being traced. Start with '&b/%label% events trace enable&7'.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.events.trace.enabled")
+            private List<String> eventsTraceEnabled = Collections.singletonList(
+                    "%prefix% Events are now being traced.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.events.trace.disabled")
+            private List<String> eventsTraceDisabled = Collections.singletonList(
+                    "%prefix% Events are no longer being traced.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.events.trace.cleared")
+            private List<String> eventsTraceCleared = Collections.singletonList(
+                    "%prefix% The event trace has been cleared.");
+
+            @Comment("Placeholders: %prefix%, %tracing%, %entries%, %capacity%, %shown%")
+            @Key("subcommands.events.trace.header")
+            private List<String> eventsTraceHeader = Arrays.asList(
+                    "&f&nEvent Trace",
+                    "&8 &m->&7 Tracing: &b%tracing%&7, &b%entries%&7 of &b%capacity%&7 entries kept, the last &b%shown%&7 shown",
+                    "&8 &m->&7 Durations are in microseconds."
+            );
+
+            @Comment("Sent for each of the most recent trace entries, oldest first.")
+            @Comment("Placeholders: %prefix%, %stage%, %event%, %subscriber%, %priority%,")
+            @Comment("              %duration%, %thread%, %error%")
+            @Key("subcommands.events.trace.entry")
+            private List<String> eventsTraceEntry = Collections.singletonList(
+                    "&8 &m->&b %stage% &7%event% &8(&7%subscriber%, %priority%&8)&7: &b%duration%&7 on &b%thread%&7, error: &b%error%");
+
             @Comment("Placeholders: %prefix%, %label%")
             @Key("subcommands.help.invalid-usage")
             private List<String> helpInvalidUsage = Collections.singletonList(
@@ -203,7 +304,9 @@ public class Messages {
                     " &8&m->&b /treasury info &8- &7view info about Treasury.",
                     " &8&m->&b /treasury reload &8- &7re-load all of Treasury's configuration files.",
                     " &8&m->&b /treasury downloadLatest &8- &7downloads the latest Treasury plugin jar.",
-                    " &8&m->&b /treasury economy &8 - &7economy specific commands"
+                    " &8&m->&b /treasury economy &8 - &7economy specific commands",
+                    " &8&m->&b /treasury events stats &8- &7view event bus stats.",
+                    " &8&m->&b /treasury events trace &8- &7view recently traced event dispatches."
             );
 
             @Comment("Placeholders: %prefix%, %label%")
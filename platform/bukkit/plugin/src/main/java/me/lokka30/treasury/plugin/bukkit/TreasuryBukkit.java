@@ -8,7 +8,9 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.logging.Filter;
+import me.lokka30.treasury.api.common.event.EventBus;
 import me.lokka30.treasury.api.common.event.EventExecutorTrackerShutdown;
 import me.lokka30.treasury.api.common.service.Service;
 import me.lokka30.treasury.api.common.service.ServiceRegistry;
@@ -110,7 +112,7 @@ public class TreasuryBukkit extends JavaPlugin {
         Optional<Service<EconomyProvider>> service = ServiceRegistry.INSTANCE.serviceFor(
                 EconomyProvider.class);
 
-        EconomyProvider economyProvider;
+        Supplier<EconomyProvider> economyProvider;
         String pluginName;
 
         if (!service.isPresent()) {
@@ -118,39 +120,58 @@ public class TreasuryBukkit extends JavaPlugin {
                     .getServicesManager()
                     .getRegistration(EconomyProvider.class);
 
-            economyProvider = serviceProvider == null ? null : serviceProvider.getProvider();
+            EconomyProvider bukkitProvider = serviceProvider == null
+                    ? null
+                    : serviceProvider.getProvider();
+            economyProvider = () -> bukkitProvider;
             pluginName = serviceProvider == null ? null : serviceProvider.getPlugin().getName();
         } else {
-            Service<EconomyProvider> serv = service.get();
-            economyProvider = serv.get();
-            pluginName = serv.registrarName();
+            // resolved on every report: providers registered lazily are not created just to
+            // report on them, but are reported on once they have been created
+            economyProvider = () -> service
+                    .filter(Service::isInitialized)
+                    .map(Service::get)
+                    .orElse(null);
+            pluginName = service.get().registrarName();
         }
 
         metrics.addCustomChart(new SimplePie(
                 "economy-provider-name",
-                () -> economyProvider == null ? "None" : pluginName
+                () -> pluginName == null ? "None" : pluginName
+        ));
+
+        metrics.addCustomChart(new SimplePie(
+                // false for providers registered lazily which nobody has used yet
+                "economy-provider-used",
+                () -> service.map(serv -> Boolean.toString(serv.isInitialized())).orElse(null)
         ));
 
         metrics.addCustomChart(new SimplePie(
                 "economy-provider-supports-negative-balances",
-                () -> economyProvider == null
-                        ? null
-                        : Boolean.toString(economyProvider
-                                .getSupportedOptionalEconomyApiFeatures()
-                                .contains(OptionalEconomyApiFeature.NEGATIVE_BALANCES))
+                () -> {
+                    EconomyProvider provider = economyProvider.get();
+                    return provider == null
+                            ? null
+                            : Boolean.toString(provider
+                                    .getSupportedOptionalEconomyApiFeatures()
+                                    .contains(OptionalEconomyApiFeature.NEGATIVE_BALANCES));
+                }
         ));
 
         metrics.addCustomChart(new SimplePie(
                 // unfortunately bStats truncates the length of the id, so the 's' character
                 // on the end had to be removed.
                 "economy-provider-supports-transaction-events",
-                () -> economyProvider == null
-                        ? null
-                        : Boolean.toString(economyProvider
-                                .getSupportedOptionalEconomyApiFeatures()
-                                .contains(OptionalEconomyApiFeature.BUKKIT_TRANSACTION_EVENTS) || economyProvider
-                                .getSupportedOptionalEconomyApiFeatures()
-                                .contains(OptionalEconomyApiFeature.TRANSACTION_EVENTS))
+                () -> {
+                    EconomyProvider provider = economyProvider.get();
+                    return provider == null
+                            ? null
+                            : Boolean.toString(provider
+                                    .getSupportedOptionalEconomyApiFeatures()
+                                    .contains(OptionalEconomyApiFeature.BUKKIT_TRANSACTION_EVENTS) || provider
+                                    .getSupportedOptionalEconomyApiFeatures()
+                                    .contains(OptionalEconomyApiFeature.TRANSACTION_EVENTS));
+                }
         ));
 
         metrics.addCustomChart(new SimplePie(
@@ -162,11 +183,12 @@ public class TreasuryBukkit extends JavaPlugin {
         ));
 
         metrics.addCustomChart(new SimplePie("economy-provider-currencies", () -> {
-            if (economyProvider == null) {
+            EconomyProvider provider = economyProvider.get();
+            if (provider == null) {
                 return null;
             }
 
-            final int size = economyProvider.getCurrencies().size();
+            final int size = provider.getCurrencies().size();
 
             if (size >= 10) {
                 return "10+";
@@ -193,6 +215,7 @@ public class TreasuryBukkit extends JavaPlugin {
         Bukkit.getServicesManager().unregisterAll(this);
 
         // Shutdown events
+        EventBus.INSTANCE.unsubscribeAll("Treasury");
         EventExecutorTrackerShutdown.shutdown();
 
         treasuryPlugin.info("&fShut-down complete (took &b" + shutdownTimer.getTimer() + "ms&f).");
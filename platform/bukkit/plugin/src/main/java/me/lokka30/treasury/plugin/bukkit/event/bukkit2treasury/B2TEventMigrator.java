@@ -18,6 +18,8 @@ import org.bukkit.event.Listener;
 
 public class B2TEventMigrator implements Listener {
 
+    // Fired synchronously: Treasury subscribers usually complete right away, so the main thread
+    // does not have to wait for the event to hop to another thread and back.
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onTransaction(AccountTransactionEvent event) {
         if (EventMigrationManager.INSTANCE.getCurrentlyCalledEventFromTreasury() != null) {
@@ -26,6 +28,9 @@ public class B2TEventMigrator implements Listener {
 
         Account account = event.getAccount();
         if (account instanceof PlayerAccount) {
+            if (!EventBus.INSTANCE.hasSubscribers(PlayerAccountTransactionEvent.class)) {
+                return;
+            }
             // player account
             EventMigrationManager.INSTANCE.setCurrentlyCalledEventFromBukkit(EventMigrationManager.CurrentlyCalledEvent.PLAYER);
 
@@ -34,7 +39,7 @@ public class B2TEventMigrator implements Listener {
             );
             pate.setCancelled(event.isCancelled());
 
-            EventBus.INSTANCE.fire(pate).whenCompleteBlocking((e, errors) -> {
+            EventBus.INSTANCE.fireSync(pate).whenCompleteBlocking((e, errors) -> {
                 if (!errors.isEmpty()) {
                     for (Throwable error : errors) {
                         error.printStackTrace();
@@ -52,6 +57,9 @@ public class B2TEventMigrator implements Listener {
         }
 
         if (account instanceof NonPlayerAccount) {
+            if (!EventBus.INSTANCE.hasSubscribers(NonPlayerAccountTransactionEvent.class)) {
+                return;
+            }
             // non player account
             EventMigrationManager.INSTANCE.setCurrentlyCalledEventFromBukkit(EventMigrationManager.CurrentlyCalledEvent.NON_PLAYER);
 
@@ -60,7 +68,7 @@ public class B2TEventMigrator implements Listener {
             );
             npate.setCancelled(event.isCancelled());
 
-            EventBus.INSTANCE.fire(npate).whenCompleteBlocking((e, errors) -> {
+            EventBus.INSTANCE.fireSync(npate).whenCompleteBlocking((e, errors) -> {
                 if (!errors.isEmpty()) {
                     for (Throwable error : errors) {
                         error.printStackTrace();
@@ -19,7 +19,7 @@ public class T2BEventMigrator {
 
     public static void registerListener() {
         EventBus bus = EventBus.INSTANCE;
-        bus.subscribe(bus
+        bus.subscribe("Treasury", bus
                 .subscriptionFor(AccountTransactionEvent.class)
                 .withPriority(EventPriority.HIGH)
                 .whenCalled(event -> {
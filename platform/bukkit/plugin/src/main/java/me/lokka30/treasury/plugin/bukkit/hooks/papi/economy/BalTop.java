@@ -11,13 +11,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.service.ServiceHandle;
 import me.lokka30.treasury.api.economy.EconomyProvider;
-import me.lokka30.treasury.api.economy.account.PlayerAccount;
 import me.lokka30.treasury.api.economy.currency.Currency;
-import me.lokka30.treasury.api.economy.response.EconomySubscriber;
 import me.lokka30.treasury.plugin.bukkit.TreasuryBukkit;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -30,12 +29,12 @@ public class BalTop extends BukkitRunnable {
     private final boolean enabled;
     private final int topSize;
     private final int taskDelay;
-    private final AtomicReference<EconomyProvider> providerRef;
+    private final ServiceHandle<EconomyProvider> providerRef;
 
     private final Multimap<String, TopPlayer> baltop;
 
     public BalTop(
-            boolean enabled, int topSize, int taskDelay, AtomicReference<EconomyProvider> provider
+            boolean enabled, int topSize, int taskDelay, ServiceHandle<EconomyProvider> provider
     ) {
         this.enabled = enabled;
         this.topSize = topSize;
@@ -131,34 +130,27 @@ public class BalTop extends BukkitRunnable {
     }
 
     private void handlePlayers(EconomyProvider provider) {
+        Map<UUID, String> names = new HashMap<>();
         for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
             if (player.getName() == null) {
                 continue;
             }
+            names.put(player.getUniqueId(), player.getName());
+        }
 
-            PlayerAccount account = EconomySubscriber
-                    .<Boolean>asFuture(s -> provider.hasPlayerAccount(player.getUniqueId(), s))
-                    .thenCompose(val -> {
-                        if (val) {
-                            return EconomySubscriber.<PlayerAccount>asFuture(s -> provider.retrievePlayerAccount(player.getUniqueId(),
-                                    s
-                            ));
-                        } else {
-                            return CompletableFuture.completedFuture(null);
-                        }
-                    })
-                    .join();
-            if (account == null) {
-                continue;
-            }
-            for (Currency currency : provider.getCurrencies()) {
-                BigDecimal balance = EconomySubscriber
-                        .<BigDecimal>asFuture(s -> account.retrieveBalance(currency, s))
-                        .join();
+        Map<Currency, Map<UUID, BigDecimal>> retrieved = PlayerBalances.retrieve(provider,
+                names.keySet()
+        );
+        for (Map.Entry<Currency, Map<UUID, BigDecimal>> byCurrency : retrieved.entrySet()) {
+            Currency currency = byCurrency.getKey();
+            for (Map.Entry<UUID, BigDecimal> entry : byCurrency.getValue().entrySet()) {
+                BigDecimal balance = entry.getValue();
                 if (balance == null || balance.equals(BigDecimal.ZERO)) {
                     continue;
                 }
-                baltop.put(currency.getIdentifier(), new TopPlayer(player.getName(), balance));
+                baltop.put(currency.getIdentifier(),
+                        new TopPlayer(names.get(entry.getKey()), balance)
+                );
             }
         }
     }
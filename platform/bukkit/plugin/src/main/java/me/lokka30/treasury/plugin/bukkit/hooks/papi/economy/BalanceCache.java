@@ -8,15 +8,14 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import java.math.BigDecimal;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicReference;
+import me.lokka30.treasury.api.common.service.ServiceHandle;
 import me.lokka30.treasury.api.economy.EconomyProvider;
-import me.lokka30.treasury.api.economy.account.PlayerAccount;
 import me.lokka30.treasury.api.economy.currency.Currency;
-import me.lokka30.treasury.api.economy.response.EconomySubscriber;
 import me.lokka30.treasury.plugin.bukkit.TreasuryBukkit;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -27,9 +26,9 @@ public class BalanceCache extends BukkitRunnable {
 
     private final Multimap<UUID, Map.Entry<String, BigDecimal>> balances = HashMultimap.create();
     private final int delay;
-    private final AtomicReference<EconomyProvider> providerRef;
+    private final ServiceHandle<EconomyProvider> providerRef;
 
-    public BalanceCache(int delay, AtomicReference<EconomyProvider> providerRef) {
+    public BalanceCache(int delay, ServiceHandle<EconomyProvider> providerRef) {
         this.delay = delay;
         this.providerRef = providerRef;
     }
@@ -58,31 +57,23 @@ public class BalanceCache extends BukkitRunnable {
         if (provider == null) {
             return;
         }
-        balances.clear();
+        List<UUID> playerIds = new ArrayList<>();
         for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
-            PlayerAccount account = EconomySubscriber
-                    .<Boolean>asFuture(s -> provider.hasPlayerAccount(player.getUniqueId(), s))
-                    .thenCompose(val -> {
-                        if (val) {
-                            return EconomySubscriber.<PlayerAccount>asFuture(s -> provider.retrievePlayerAccount(player.getUniqueId(),
-                                    s
-                            ));
-                        } else {
-                            return CompletableFuture.completedFuture(null);
-                        }
-                    })
-                    .join();
-            if (account == null) {
-                continue;
-            }
-            for (Currency currency : provider.getCurrencies()) {
-                BigDecimal balance = EconomySubscriber
-                        .<BigDecimal>asFuture(s -> account.retrieveBalance(currency, s))
-                        .join();
+            playerIds.add(player.getUniqueId());
+        }
+
+        balances.clear();
+        Map<Currency, Map<UUID, BigDecimal>> retrieved = PlayerBalances.retrieve(provider,
+                playerIds
+        );
+        for (Map.Entry<Currency, Map<UUID, BigDecimal>> byCurrency : retrieved.entrySet()) {
+            Currency currency = byCurrency.getKey();
+            for (Map.Entry<UUID, BigDecimal> entry : byCurrency.getValue().entrySet()) {
+                BigDecimal balance = entry.getValue();
                 if (balance == null || balance.equals(BigDecimal.ZERO)) {
                     continue;
                 }
-                balances.put(player.getUniqueId(),
+                balances.put(entry.getKey(),
                         new AbstractMap.SimpleEntry<>(currency.getIdentifier(), balance)
                 );
             }
@@ -7,15 +7,10 @@ package me.lokka30.treasury.plugin.bukkit.hooks.papi.economy;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.util.Locale;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import me.lokka30.treasury.api.common.event.EventBus;
-import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceHandle;
 import me.lokka30.treasury.api.common.service.ServiceRegistry;
-import me.lokka30.treasury.api.common.service.event.ServiceRegisteredEvent;
-import me.lokka30.treasury.api.common.service.event.ServiceUnregisteredEvent;
 import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.api.economy.currency.Currency;
 import me.lokka30.treasury.plugin.bukkit.TreasuryBukkit;
@@ -93,7 +88,7 @@ public class EconomyHook implements TreasuryPapiHook {
                     // Optional group "currency": currency ID
                     + "(_(?<currency>.*?))?");
 
-    private final AtomicReference<EconomyProvider> providerRef;
+    private final ServiceHandle<EconomyProvider> providerRef;
     private final DecimalFormat format = new DecimalFormat("#,###");
     private final TreasuryPapiExpansion expansion;
     private final TreasuryBukkit plugin;
@@ -106,7 +101,7 @@ public class EconomyHook implements TreasuryPapiHook {
     private BalanceCache balanceCache;
 
     public EconomyHook(@NotNull TreasuryPapiExpansion expansion, @NotNull TreasuryBukkit plugin) {
-        this.providerRef = new AtomicReference<>();
+        this.providerRef = ServiceRegistry.INSTANCE.handleFor(EconomyProvider.class);
         this.expansion = expansion;
         this.plugin = plugin;
         this.k = expansion.getString("formatting.thousands", "k");
@@ -125,31 +120,6 @@ public class EconomyHook implements TreasuryPapiHook {
     public boolean setup() {
         clear();
 
-        // call a service change because there are economy providers that register to the service
-        // manager in onLoad. that's earlier than when treasury and papi start and in that time
-        // we can't capture any ServiceRegisteredEvent occurring.
-        handleServiceChange();
-
-        EventBus eventBus = EventBus.INSTANCE;
-        eventBus.subscribe(eventBus
-                .subscriptionFor(ServiceRegisteredEvent.class)
-                .whenCalled(event -> {
-                    if (!(event.getService().get() instanceof EconomyProvider)) {
-                        return;
-                    }
-                    handleServiceChange();
-                })
-                .completeSubscription());
-        eventBus.subscribe(eventBus
-                .subscriptionFor(ServiceUnregisteredEvent.class)
-                .whenCalled(event -> {
-                    if (!(event.getService().get() instanceof EconomyProvider)) {
-                        return;
-                    }
-                    handleServiceChange();
-                })
-                .completeSubscription());
-
         this.baltop = new BalTop(expansion.getBoolean("baltop.enabled", false),
                 expansion.getInt("baltop.cache_size", 100),
                 expansion.getInt("baltop.cache_delay", 30),
@@ -166,16 +136,6 @@ public class EconomyHook implements TreasuryPapiHook {
         return true;
     }
 
-    private void handleServiceChange() {
-        Optional<Service<EconomyProvider>> serviceOpt = ServiceRegistry.INSTANCE.serviceFor(
-                EconomyProvider.class);
-        if (serviceOpt.isPresent()) {
-            providerRef.set(serviceOpt.get().get());
-        } else {
-            providerRef.set(null);
-        }
-    }
-
     @Override
     public void clear() {
         // Cancel baltop task.
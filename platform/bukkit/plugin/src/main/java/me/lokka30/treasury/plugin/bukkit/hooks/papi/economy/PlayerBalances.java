@@ -0,0 +1,89 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.bukkit.hooks.papi.economy;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.misc.OptionalEconomyApiFeature;
+import me.lokka30.treasury.api.economy.response.EconomySubscriber;
+
+final class PlayerBalances {
+
+    private PlayerBalances() {
+        throw new IllegalArgumentException("Initialization of utility-type class");
+    }
+
+    /**
+     * Retrieves the balances of the given players in every currency of the provider. Players
+     * without an account, or whose balance could not be retrieved, are left out.
+     *
+     * <p>Only providers supporting {@link OptionalEconomyApiFeature#BULK_BALANCES} are asked
+     * for each currency at once. Any other provider would look every player up again for each
+     * currency, so each account is retrieved once and all its balances are read from it.
+     */
+    static Map<Currency, Map<UUID, BigDecimal>> retrieve(
+            EconomyProvider provider, Collection<UUID> playerIds
+    ) {
+        Set<Currency> currencies = provider.getCurrencies();
+        Map<Currency, Map<UUID, BigDecimal>> balances = new HashMap<>();
+        if (provider
+                .getSupportedOptionalEconomyApiFeatures()
+                .contains(OptionalEconomyApiFeature.BULK_BALANCES)) {
+            for (Currency currency : currencies) {
+                balances.put(currency, EconomySubscriber
+                        .<Map<UUID, BigDecimal>>asFuture(s -> provider.retrieveBalances(playerIds,
+                                currency,
+                                s
+                        ))
+                        .exceptionally(e -> Collections.emptyMap())
+                        .join());
+            }
+            return balances;
+        }
+
+        for (Currency currency : currencies) {
+            balances.put(currency, new HashMap<>());
+        }
+        for (UUID playerId : playerIds) {
+            PlayerAccount account = EconomySubscriber
+                    .<Boolean>asFuture(s -> provider.hasPlayerAccount(playerId, s))
+                    .thenCompose(val -> {
+                        if (val) {
+                            return EconomySubscriber.<PlayerAccount>asFuture(s -> provider.retrievePlayerAccount(
+                                    playerId,
+                                    s
+                            ));
+                        } else {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                    })
+                    .exceptionally(e -> null)
+                    .join();
+            if (account == null) {
+                continue;
+            }
+            for (Currency currency : currencies) {
+                BigDecimal balance = EconomySubscriber
+                        .<BigDecimal>asFuture(s -> account.retrieveBalance(currency, s))
+                        .exceptionally(e -> null)
+                        .join();
+                if (balance != null) {
+                    balances.get(currency).put(playerId, balance);
+                }
+            }
+        }
+        return balances;
+    }
+
+}
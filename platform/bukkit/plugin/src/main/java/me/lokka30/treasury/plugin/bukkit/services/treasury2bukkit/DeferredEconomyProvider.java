@@ -0,0 +1,168 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/lokka30/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.bukkit.services.treasury2bukkit;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountPermission;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.misc.EconomyAPIVersion;
+import me.lokka30.treasury.api.economy.misc.OptionalEconomyApiFeature;
+import me.lokka30.treasury.api.economy.response.EconomySubscriber;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The economy provider registered to Bukkit for a provider registered lazily to Treasury. It
+ * creates the provider the first time a Bukkit plugin uses it, rather than when it is mirrored.
+ */
+class DeferredEconomyProvider implements EconomyProvider {
+
+    private final Service<EconomyProvider> service;
+
+    DeferredEconomyProvider(@NotNull Service<EconomyProvider> service) {
+        this.service = service;
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public @NotNull EconomyAPIVersion getSupportedAPIVersion() {
+        return service.get().getSupportedAPIVersion();
+    }
+
+    @Override
+    public @NotNull Set<OptionalEconomyApiFeature> getSupportedOptionalEconomyApiFeatures() {
+        return service.get().getSupportedOptionalEconomyApiFeatures();
+    }
+
+    @Override
+    public void hasPlayerAccount(
+            @NotNull UUID accountId, @NotNull EconomySubscriber<Boolean> subscription
+    ) {
+        service.get().hasPlayerAccount(accountId, subscription);
+    }
+
+    @Override
+    public void retrievePlayerAccount(
+            @NotNull UUID accountId, @NotNull EconomySubscriber<PlayerAccount> subscription
+    ) {
+        service.get().retrievePlayerAccount(accountId, subscription);
+    }
+
+    @Override
+    public void createPlayerAccount(
+            @NotNull UUID accountId, @NotNull EconomySubscriber<PlayerAccount> subscription
+    ) {
+        service.get().createPlayerAccount(accountId, subscription);
+    }
+
+    @Override
+    public void retrievePlayerAccountIds(@NotNull EconomySubscriber<Collection<UUID>> subscription) {
+        service.get().retrievePlayerAccountIds(subscription);
+    }
+
+    @Override
+    public void hasAccount(
+            @NotNull String identifier, @NotNull EconomySubscriber<Boolean> subscription
+    ) {
+        service.get().hasAccount(identifier, subscription);
+    }
+
+    @Override
+    public void retrieveAccount(
+            @NotNull String identifier, @NotNull EconomySubscriber<Account> subscription
+    ) {
+        service.get().retrieveAccount(identifier, subscription);
+    }
+
+    @Override
+    public void createAccount(
+            @NotNull String identifier, @NotNull EconomySubscriber<Account> subscription
+    ) {
+        service.get().createAccount(identifier, subscription);
+    }
+
+    @Override
+    public void createAccount(
+            @Nullable String name,
+            @NotNull String identifier,
+            @NotNull EconomySubscriber<Account> subscription
+    ) {
+        service.get().createAccount(name, identifier, subscription);
+    }
+
+    @Override
+    public void retrieveAccountIds(@NotNull EconomySubscriber<Collection<String>> subscription) {
+        service.get().retrieveAccountIds(subscription);
+    }
+
+    @Override
+    public void retrieveNonPlayerAccountIds(
+            @NotNull EconomySubscriber<Collection<String>> subscription
+    ) {
+        service.get().retrieveNonPlayerAccountIds(subscription);
+    }
+
+    @Override
+    public void retrieveAllAccountsPlayerIsMemberOf(
+            @NotNull UUID playerId, @NotNull EconomySubscriber<Collection<String>> subscription
+    ) {
+        service.get().retrieveAllAccountsPlayerIsMemberOf(playerId, subscription);
+    }
+
+    @Override
+    public void retrieveAllAccountsPlayerHasPermission(
+            @NotNull UUID playerId,
+            @NotNull EconomySubscriber<Collection<String>> subscription,
+            @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        service.get().retrieveAllAccountsPlayerHasPermission(playerId, subscription, permissions);
+    }
+
+    @Override
+    public void retrieveBalances(
+            @NotNull Collection<UUID> playerIds,
+            @NotNull Currency currency,
+            @NotNull EconomySubscriber<Map<UUID, BigDecimal>> subscription
+    ) {
+        service.get().retrieveBalances(playerIds, currency, subscription);
+    }
+
+    @Override
+    public @NotNull Currency getPrimaryCurrency() {
+        return service.get().getPrimaryCurrency();
+    }
+
+    @Override
+    public Optional<Currency> findCurrency(@NotNull String identifier) {
+        return service.get().findCurrency(identifier);
+    }
+
+    @Override
+    public Set<Currency> getCurrencies() {
+        return service.get().getCurrencies();
+    }
+
+    @Override
+    public @NotNull String getPrimaryCurrencyId() {
+        return service.get().getPrimaryCurrencyId();
+    }
+
+    @Override
+    public void registerCurrency(
+            @NotNull Currency currency, @NotNull EconomySubscriber<Boolean> subscription
+    ) {
+        service.get().registerCurrency(currency, subscription);
+    }
+
+}
@@ -4,11 +4,12 @@
 
 package me.lokka30.treasury.plugin.bukkit.services.treasury2bukkit;
 
+import java.util.HashMap;
+import java.util.Map;
 import me.lokka30.treasury.api.common.event.EventBus;
 import me.lokka30.treasury.api.common.event.EventPriority;
 import me.lokka30.treasury.api.common.service.Service;
-import me.lokka30.treasury.api.common.service.event.ServiceRegisteredEvent;
-import me.lokka30.treasury.api.common.service.event.ServiceUnregisteredEvent;
+import me.lokka30.treasury.api.common.service.event.ServicesChangedEvent;
 import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.plugin.bukkit.TreasuryBukkit;
 import me.lokka30.treasury.plugin.bukkit.services.ServiceMigrationManager;
@@ -18,6 +19,9 @@ import org.bukkit.plugin.ServicePriority;
 public class T2BServiceMigrator {
 
     private final TreasuryBukkit plugin;
+    // what has been registered to Bukkit for each mirrored service, so unregistering does not
+    // create a provider registered lazily
+    private final Map<Service<?>, EconomyProvider> mirrored = new HashMap<>();
 
     public T2BServiceMigrator(TreasuryBukkit plugin) {
         this.plugin = plugin;
@@ -26,48 +30,59 @@ public class T2BServiceMigrator {
     public void registerListeners() {
         EventBus bus = EventBus.INSTANCE;
 
-        bus.subscribe(bus
-                .subscriptionFor(ServiceRegisteredEvent.class)
+        // one listener for both, so a provider unregistered and registered again with another
+        // priority is handled in that order
+        bus.subscribe("Treasury", bus
+                .subscriptionFor(ServicesChangedEvent.class)
                 .withPriority(EventPriority.LOW)
                 .whenCalled(event -> {
-                    Service<?> service = event.getService();
-                    if (!EconomyProvider.class.isAssignableFrom(service.get().getClass())) {
-                        return;
+                    for (Service<?> service : event.getRemoved()) {
+                        handleUnregistration(service);
                     }
-
-                    if (ServiceMigrationManager.INSTANCE.hasBeenMigratedFromBukkit(service.registrarName())) {
-                        return;
+                    for (Service<?> service : event.getAdded()) {
+                        handleRegistration(service);
                     }
-
-                    EconomyProvider provider = (EconomyProvider) service.get();
-                    ServiceMigrationManager.INSTANCE.registerTreasury2BukkitMigration(provider);
-                    Bukkit.getServicesManager().register(
-                            EconomyProvider.class,
-                            provider,
-                            plugin,
-                            migratePriority(service.priority())
-                    );
                 })
                 .completeSubscription());
+    }
 
-        bus.subscribe(bus
-                .subscriptionFor(ServiceUnregisteredEvent.class)
-                .withPriority(EventPriority.LOW)
-                .whenCalled(event -> {
-                    Service<?> service = event.getService();
-                    if (!EconomyProvider.class.isAssignableFrom(service.get().getClass())) {
-                        return;
-                    }
+    private void handleRegistration(Service<?> service) {
+        if (!EconomyProvider.class.isAssignableFrom(service.serviceType())) {
+            return;
+        }
 
-                    if (!ServiceMigrationManager.INSTANCE.hasBeenMigratedFromBukkit(service.registrarName())) {
-                        return;
-                    }
+        if (ServiceMigrationManager.INSTANCE.hasBeenMigratedFromBukkit(service.registrarName())) {
+            return;
+        }
 
-                    EconomyProvider provider = (EconomyProvider) service.get();
-                    ServiceMigrationManager.INSTANCE.unregisterTreasury2BukkitMigration(provider);
-                    Bukkit.getServicesManager().unregister(EconomyProvider.class, provider);
-                })
-                .completeSubscription());
+        @SuppressWarnings("unchecked") Service<EconomyProvider> economy =
+                (Service<EconomyProvider>) service;
+        // a provider registered lazily is only created once a Bukkit plugin uses it
+        EconomyProvider provider = economy.isInitialized()
+                ? economy.get()
+                : new DeferredEconomyProvider(economy);
+        mirrored.put(service, provider);
+        ServiceMigrationManager.INSTANCE.registerTreasury2BukkitMigration(provider);
+        Bukkit.getServicesManager().register(
+                EconomyProvider.class,
+                provider,
+                plugin,
+                migratePriority(service.priority())
+        );
+    }
+
+    private void handleUnregistration(Service<?> service) {
+        if (!EconomyProvider.class.isAssignableFrom(service.serviceType())) {
+            return;
+        }
+
+        EconomyProvider provider = mirrored.remove(service);
+        if (provider == null) {
+            return;
+        }
+
+        ServiceMigrationManager.INSTANCE.unregisterTreasury2BukkitMigration(provider);
+        Bukkit.getServicesManager().unregister(EconomyProvider.class, provider);
     }
 
     private ServicePriority migratePriority(me.lokka30.treasury.api.common.service.ServicePriority priority) {
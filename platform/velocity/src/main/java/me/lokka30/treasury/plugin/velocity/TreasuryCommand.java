@@ -136,6 +136,68 @@ public class TreasuryCommand {
                                                                 )
                                                 )
                                 )
+                )
+                .then(
+                        LiteralArgumentBuilder.<CommandSource>literal("events")
+                                .requires(source -> source.hasPermission(
+                                        "treasury.command.treasury.events"))
+                                .executes(constructCommand(base, sources, "events"))
+                                .then(
+                                        LiteralArgumentBuilder.<CommandSource>literal("stats")
+                                                .requires(source -> source.hasPermission(
+                                                        "treasury.command.treasury.events.stats"))
+                                                .executes(constructCommand(base, sources,
+                                                        "events stats"))
+                                                .then(
+                                                        LiteralArgumentBuilder.<CommandSource>literal("enable")
+                                                                .requires(source -> source.hasPermission(
+                                                                        "treasury.command.treasury.events.stats"))
+                                                                .executes(constructCommand(base, sources,
+                                                                        "events stats enable"))
+                                                )
+                                                .then(
+                                                        LiteralArgumentBuilder.<CommandSource>literal("disable")
+                                                                .requires(source -> source.hasPermission(
+                                                                        "treasury.command.treasury.events.stats"))
+                                                                .executes(constructCommand(base, sources,
+                                                                        "events stats disable"))
+                                                )
+                                                .then(
+                                                        LiteralArgumentBuilder.<CommandSource>literal("reset")
+                                                                .requires(source -> source.hasPermission(
+                                                                        "treasury.command.treasury.events.stats"))
+                                                                .executes(constructCommand(base, sources,
+                                                                        "events stats reset"))
+                                                )
+                                )
+                                .then(
+                                        LiteralArgumentBuilder.<CommandSource>literal("trace")
+                                                .requires(source -> source.hasPermission(
+                                                        "treasury.command.treasury.events.trace"))
+                                                .executes(constructCommand(base, sources,
+                                                        "events trace"))
+                                                .then(
+                                                        LiteralArgumentBuilder.<CommandSource>literal("enable")
+                                                                .requires(source -> source.hasPermission(
+                                                                        "treasury.command.treasury.events.trace"))
+                                                                .executes(constructCommand(base, sources,
+                                                                        "events trace enable"))
+                                                )
+                                                .then(
+                                                        LiteralArgumentBuilder.<CommandSource>literal("disable")
+                                                                .requires(source -> source.hasPermission(
+                                                                        "treasury.command.treasury.events.trace"))
+                                                                .executes(constructCommand(base, sources,
+                                                                        "events trace disable"))
+                                                )
+                                                .then(
+                                                        LiteralArgumentBuilder.<CommandSource>literal("clear")
+                                                                .requires(source -> source.hasPermission(
+                                                                        "treasury.command.treasury.events.trace"))
+                                                                .executes(constructCommand(base, sources,
+                                                                        "events trace clear"))
+                                                )
+                                )
                 ).build();
     }
     //@formatter:on
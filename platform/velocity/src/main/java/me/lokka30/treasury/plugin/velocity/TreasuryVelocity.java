@@ -14,6 +14,7 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.function.Supplier;
 import me.lokka30.treasury.api.common.event.EventExecutorTrackerShutdown;
 import me.lokka30.treasury.api.common.service.Service;
 import me.lokka30.treasury.api.common.service.ServiceRegistry;
@@ -78,32 +79,47 @@ public class TreasuryVelocity {
                 .serviceFor(EconomyProvider.class)
                 .orElse(null);
 
-        EconomyProvider economyProvider = service == null ? null : service.get();
+        // resolved on every report: providers registered lazily are not created just to report
+        // on them, but are reported on once they have been created
+        Supplier<EconomyProvider> economyProvider = () -> service == null
+                || !service.isInitialized() ? null : service.get();
         String pluginName = service == null ? null : service.registrarName();
 
         metrics.addCustomChart(new SimplePie(
                 "economy-provider-name",
-                () -> economyProvider == null ? "None" : pluginName
+                () -> pluginName == null ? "None" : pluginName
+        ));
+
+        metrics.addCustomChart(new SimplePie(
+                // false for providers registered lazily which nobody has used yet
+                "economy-provider-used",
+                () -> service == null ? null : Boolean.toString(service.isInitialized())
         ));
 
         metrics.addCustomChart(new SimplePie(
                 "economy-provider-supports-negative-balances",
-                () -> economyProvider == null
-                        ? null
-                        : Boolean.toString(economyProvider
-                                .getSupportedOptionalEconomyApiFeatures()
-                                .contains(OptionalEconomyApiFeature.NEGATIVE_BALANCES))
+                () -> {
+                    EconomyProvider provider = economyProvider.get();
+                    return provider == null
+                            ? null
+                            : Boolean.toString(provider
+                                    .getSupportedOptionalEconomyApiFeatures()
+                                    .contains(OptionalEconomyApiFeature.NEGATIVE_BALANCES));
+                }
         ));
 
         metrics.addCustomChart(new SimplePie(
                 // unfortunately bStats truncates the length of the id, so the 's' character
                 // on the end had to be removed.
                 "economy-provider-supports-transaction-events",
-                () -> economyProvider == null
-                        ? null
-                        : Boolean.toString(economyProvider
-                                .getSupportedOptionalEconomyApiFeatures()
-                                .contains(OptionalEconomyApiFeature.TRANSACTION_EVENTS))
+                () -> {
+                    EconomyProvider provider = economyProvider.get();
+                    return provider == null
+                            ? null
+                            : Boolean.toString(provider
+                                    .getSupportedOptionalEconomyApiFeatures()
+                                    .contains(OptionalEconomyApiFeature.TRANSACTION_EVENTS));
+                }
         ));
 
         metrics.addCustomChart(new SimplePie(
@@ -115,11 +131,12 @@ public class TreasuryVelocity {
         ));
 
         metrics.addCustomChart(new SimplePie("economy-provider-currencies", () -> {
-            if (economyProvider == null) {
+            EconomyProvider provider = economyProvider.get();
+            if (provider == null) {
                 return null;
             }
 
-            final int size = economyProvider.getCurrencies().size();
+            final int size = provider.getCurrencies().size();
 
             if (size >= 10) {
                 return "10+";